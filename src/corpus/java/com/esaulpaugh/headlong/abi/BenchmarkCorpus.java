@@ -0,0 +1,80 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import com.esaulpaugh.headlong.util.Strings;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The one reader and writer of persisted benchmark corpora, shared by the jmh benchmarks and the tests. A corpus is
+ * UTF-8 text: a header line, then one {@code signature<TAB>calldata-hex} line per call, so that it can be replayed with
+ * nothing but {@link Function#parse(String)} and {@link Function#decodeCall(byte[])}. Corpora are generated by
+ * {@code CorpusGenerator} in the tests.
+ */
+public final class BenchmarkCorpus {
+
+    static final String HEADER = "# headlong corpus v1";
+
+    /** A call in a corpus. */
+    public static final class Call {
+
+        public final Function function;
+        public final Tuple args;
+
+        public Call(Function function, Tuple args) {
+            this.function = function;
+            this.args = args;
+        }
+    }
+
+    private BenchmarkCorpus() {}
+
+    public static void write(List<Call> calls, Writer writer) throws IOException {
+        final BufferedWriter bw = new BufferedWriter(writer);
+        bw.write(HEADER);
+        bw.newLine();
+        for (Call c : calls) {
+            bw.write(c.function.getCanonicalSignature());
+            bw.write('\t');
+            bw.write(Strings.encode(c.function.encodeCall(c.args).array()));
+            bw.newLine();
+        }
+        bw.flush();
+    }
+
+    /** Returns the calls in the corpus as {@link Function}s paired with their decoded arguments. */
+    public static List<Call> read(Reader reader) throws IOException {
+        final BufferedReader br = new BufferedReader(reader);
+        if (!HEADER.equals(br.readLine())) {
+            throw new IllegalArgumentException("not a corpus");
+        }
+        final List<Call> calls = new ArrayList<>();
+        String line;
+        while ((line = br.readLine()) != null) {
+            final int tab = line.indexOf('\t');
+            final Function f = Function.parse(line.substring(0, tab));
+            calls.add(new Call(f, f.decodeCall(Strings.decode(line.substring(tab + 1)))));
+        }
+        return calls;
+    }
+}
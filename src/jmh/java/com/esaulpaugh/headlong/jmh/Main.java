@@ -1,27 +1,48 @@
 package com.esaulpaugh.headlong.jmh;
 
+import com.esaulpaugh.headlong.jmh.abi.MeasureArrayEncoding;
+import com.esaulpaugh.headlong.jmh.abi.MeasureCorpus;
 import com.esaulpaugh.headlong.jmh.abi.MeasureFunction;
+import com.esaulpaugh.headlong.jmh.abi.MeasurePackedHash;
 import com.esaulpaugh.headlong.jmh.abi.MeasurePadding;
+import com.esaulpaugh.headlong.jmh.abi.MeasureTupleType;
 import com.esaulpaugh.headlong.jmh.rlp.MeasureKeyValuePairSort;
+import com.esaulpaugh.headlong.jmh.rlp.MeasureRLP;
+import com.esaulpaugh.headlong.jmh.rlp.MeasureRLPNumbers;
+import com.esaulpaugh.headlong.jmh.rlp.MeasureTrie;
+import com.esaulpaugh.headlong.jmh.util.MeasureStrings;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 public class Main {
 
     public static void main(String[] args) throws RunnerException {
-        Options opt = new OptionsBuilder()
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(MeasureArrayEncoding.class.getSimpleName())
                 .include(MeasureFunction.class.getSimpleName())
-                .include(MeasureKeyValuePairSort.class.getSimpleName())
+                .include(MeasurePackedHash.class.getSimpleName())
                 .include(MeasurePadding.class.getSimpleName())
+                .include(MeasureTupleType.class.getSimpleName())
+                .include(MeasureKeyValuePairSort.class.getSimpleName())
+                .include(MeasureRLP.class.getSimpleName())
+                .include(MeasureRLPNumbers.class.getSimpleName())
+                .include(MeasureTrie.class.getSimpleName())
+                .include(MeasureStrings.class.getSimpleName())
+                .addProfiler(GCProfiler.class) // reports gc.alloc.rate.norm, i.e. bytes allocated per operation
                 .warmupForks(1)
                 .warmupIterations(1)
                 .forks(1)
                 .measurementIterations(5)
-                .mode(Mode.SingleShotTime)
-                .build();
+                .mode(Mode.Throughput);
+        if (System.getProperty(MeasureCorpus.CORPUS_PROPERTY) != null) {
+            builder.include(MeasureCorpus.class.getSimpleName());
+        }
+        Options opt = builder.build();
 
         new Runner(opt).run();
     }
@@ -0,0 +1,158 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh;
+
+import com.esaulpaugh.headlong.util.JsonUtils;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against a baseline of the same format. A benchmark's throughput has regressed only if
+ * the 99.9% confidence intervals JMH reports for the two runs do not overlap and the score has dropped by more than the
+ * throughput threshold. Bytes allocated per operation are close to deterministic, so an allocation regression is any
+ * increase beyond the allocation threshold and a small fixed slack.
+ *
+ * <p>Usage: {@code RegressionCheck <baseline.json> <results.json> [throughputThreshold] [allocThreshold] [--fail]}. With
+ * {@code --fail}, a regression or a missing baseline exits with status 1; otherwise both only print a warning.
+ */
+public class RegressionCheck {
+
+    private static final String ALLOC_METRIC = "\u00b7gc.alloc.rate.norm"; // key of the GC profiler's bytes per op
+    private static final double ALLOC_SLACK_BYTES = 16.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RegressionCheck <baseline.json> <results.json> [throughputThreshold] [allocThreshold] [--fail]");
+            System.exit(2);
+        }
+        final Path baselinePath = Paths.get(args[0]);
+        final boolean fail = args[args.length - 1].equals("--fail");
+        if (!Files.exists(baselinePath)) {
+            final String msg = "no baseline at " + baselinePath + "; record one with `gradle jmhBaseline`";
+            if (fail) { // a gate with nothing to compare against must not pass
+                System.err.println(msg);
+                System.exit(1);
+            }
+            System.out.println("WARNING: " + msg);
+            return;
+        }
+        final double throughputThreshold = args.length > 2 && !args[2].equals("--fail") ? Double.parseDouble(args[2]) : 0.05;
+        final double allocThreshold = args.length > 3 && !args[3].equals("--fail") ? Double.parseDouble(args[3]) : 0.02;
+
+        final Map<String, JsonObject> baseline = load(baselinePath);
+        final Map<String, JsonObject> results = load(Paths.get(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonObject> e : results.entrySet()) {
+            final JsonObject base = baseline.get(e.getKey());
+            if (base == null) {
+                System.out.println("NEW   " + e.getKey());
+                continue;
+            }
+            final JsonObject cur = e.getValue();
+            final double[] b = metric(base.getAsJsonObject("primaryMetric"));
+            final double[] c = metric(cur.getAsJsonObject("primaryMetric"));
+            final double change = (c[0] - b[0]) / b[0];
+            final boolean slower = higherIsBetter(base) ? c[0] + c[1] < b[0] - b[1] && -change > throughputThreshold
+                                                        : c[0] - c[1] > b[0] + b[1] && change > throughputThreshold;
+            String line = String.format(Locale.ROOT, "%s score %.4g -> %.4g (%+.1f%%)", e.getKey(), b[0], c[0], change * 100);
+
+            boolean allocates = false;
+            final JsonObject baseAlloc = secondary(base);
+            final JsonObject curAlloc = secondary(cur);
+            if (baseAlloc != null && curAlloc != null) {
+                final double ba = metric(baseAlloc)[0];
+                final double ca = metric(curAlloc)[0];
+                allocates = ca > ba * (1 + allocThreshold) + ALLOC_SLACK_BYTES;
+                line += String.format(Locale.ROOT, ", alloc %.1f -> %.1f B/op", ba, ca);
+            }
+            if (slower || allocates) {
+                regressions++;
+                System.out.println("WORSE " + line + (slower ? " [throughput]" : "") + (allocates ? " [allocation]" : ""));
+            } else {
+                System.out.println("OK    " + line);
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println("GONE  " + key);
+            }
+        }
+        if (regressions > 0) {
+            final String msg = regressions + " benchmark(s) regressed against " + baselinePath;
+            if (fail) {
+                System.err.println(msg);
+                System.exit(1);
+            }
+            System.out.println("WARNING: " + msg);
+        }
+    }
+
+    private static Map<String, JsonObject> load(Path path) throws IOException {
+        final JsonArray array = JsonUtils.parseArray(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        final Map<String, JsonObject> map = new LinkedHashMap<>();
+        for (JsonElement e : array) {
+            final JsonObject run = e.getAsJsonObject();
+            final JsonElement params = run.get("params");
+            final String key = JsonUtils.getString(run, "benchmark") + " " + JsonUtils.getString(run, "mode")
+                    + (params != null ? " " + params : "");
+            map.put(key, run);
+        }
+        return map;
+    }
+
+    /** Throughput modes report operations per unit time; the others report time per operation. */
+    private static boolean higherIsBetter(JsonObject run) {
+        return "thrpt".equals(JsonUtils.getString(run, "mode"));
+    }
+
+    private static JsonObject secondary(JsonObject run) {
+        final JsonObject secondaries = run.getAsJsonObject("secondaryMetrics");
+        return secondaries != null ? secondaries.getAsJsonObject(ALLOC_METRIC) : null;
+    }
+
+    /**
+     * Returns the score and the half-width of its confidence interval. When JMH reports "NaN" because there were too few
+     * iterations for an interval, the half-width is instead the furthest any raw sample lies from the score.
+     */
+    private static double[] metric(JsonObject metric) {
+        final double score = metric.get("score").getAsDouble();
+        final JsonElement error = metric.get("scoreError");
+        if (error.getAsJsonPrimitive().isNumber()) {
+            return new double[] { score, error.getAsDouble() };
+        }
+        double spread = 0.0;
+        final JsonArray forks = metric.getAsJsonArray("rawData");
+        if (forks != null) {
+            for (JsonElement fork : forks) {
+                for (JsonElement sample : fork.getAsJsonArray()) {
+                    spread = Math.max(spread, Math.abs(sample.getAsDouble() - score));
+                }
+            }
+        }
+        return new double[] { score, spread };
+    }
+}
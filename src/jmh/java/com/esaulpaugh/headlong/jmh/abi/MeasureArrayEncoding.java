@@ -0,0 +1,102 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.abi;
+
+import com.esaulpaugh.headlong.abi.Tuple;
+import com.esaulpaugh.headlong.abi.TupleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+@State(Scope.Thread)
+public class MeasureArrayEncoding {
+
+    @Param({ "uint256[]", "bytes[]", "(uint,address)[]" })
+    public String arrayType;
+
+    @Param({ "16", "1024" })
+    public int length;
+
+    private TupleType tupleType;
+    private Tuple args;
+    private ByteBuffer dest;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random r = new Random(length);
+        tupleType = TupleType.parse("(" + arrayType + ")");
+        final Object array;
+        switch (arrayType) {
+        case "uint256[]": {
+            BigInteger[] uints = new BigInteger[length];
+            for (int i = 0; i < length; i++) {
+                uints[i] = new BigInteger(256, r);
+            }
+            array = uints;
+            break;
+        }
+        case "bytes[]": {
+            byte[][] bytes = new byte[length][];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = new byte[r.nextInt(100)];
+                r.nextBytes(bytes[i]);
+            }
+            array = bytes;
+            break;
+        }
+        default: {
+            Tuple[] tuples = new Tuple[length];
+            for (int i = 0; i < length; i++) {
+                tuples[i] = new Tuple(new BigInteger(256, r), new BigInteger(160, r));
+            }
+            array = tuples;
+        }
+        }
+        args = new Tuple(array);
+        encoded = tupleType.encode(args).array();
+        dest = ByteBuffer.allocate(encoded.length);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode(Blackhole blackhole) {
+        dest.clear();
+        blackhole.consume(tupleType.encode(args, dest));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void decode(Blackhole blackhole) {
+        blackhole.consume(tupleType.decode(encoded));
+    }
+}
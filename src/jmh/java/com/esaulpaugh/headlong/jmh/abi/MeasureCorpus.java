@@ -0,0 +1,92 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.abi;
+
+import com.esaulpaugh.headlong.abi.BenchmarkCorpus;
+import com.esaulpaugh.headlong.abi.Function;
+import com.esaulpaugh.headlong.abi.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Encodes and decodes every call in a corpus file named by the {@code headlong.corpus} system property. Generate one
+ * with {@code gradle corpus} (see {@link BenchmarkCorpus}). Each operation covers the whole corpus.
+ */
+@State(Scope.Benchmark)
+public class MeasureCorpus {
+
+    public static final String CORPUS_PROPERTY = "headlong.corpus";
+
+    private Function[] functions;
+    private Tuple[] args;
+    private byte[][] calls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final String path = System.getProperty(CORPUS_PROPERTY);
+        if (path == null) {
+            throw new IllegalStateException("system property " + CORPUS_PROPERTY + " not set");
+        }
+        final List<BenchmarkCorpus.Call> corpus;
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            corpus = BenchmarkCorpus.read(reader);
+        }
+        final int n = corpus.size();
+        functions = new Function[n];
+        args = new Tuple[n];
+        calls = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            functions[i] = corpus.get(i).function;
+            args[i] = corpus.get(i).args;
+            calls[i] = functions[i].encodeCall(args[i]).array();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode_corpus(Blackhole blackhole) {
+        for (int i = 0; i < functions.length; i++) {
+            blackhole.consume(functions[i].encodeCall(args[i]));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void decode_corpus(Blackhole blackhole) {
+        for (int i = 0; i < functions.length; i++) {
+            blackhole.consume(functions[i].decodeCall(calls[i]));
+        }
+    }
+}
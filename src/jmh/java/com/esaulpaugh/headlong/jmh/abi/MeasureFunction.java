@@ -18,6 +18,8 @@ package com.esaulpaugh.headlong.jmh.abi;
 import com.esaulpaugh.headlong.abi.Function;
 import com.esaulpaugh.headlong.abi.Tuple;
 import com.esaulpaugh.headlong.abi.util.WrappedKeccak;
+import com.esaulpaugh.headlong.util.BufferAllocator;
+import com.esaulpaugh.headlong.util.PooledBufferAllocator;
 import com.esaulpaugh.headlong.util.Strings;
 import com.joemelsha.crypto.hash.Keccak;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -32,21 +34,27 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 
 @State(Scope.Benchmark)
 public class MeasureFunction {
 
     private Function f;
     private Tuple args;
+    private byte[] call;
+    private byte[] returnVals;
+    private final BufferAllocator pool = new PooledBufferAllocator();
 
     @Setup(Level.Trial)
     public void setUp() {
-        f = new Function("sam(bytes,bool,uint256[])");
+        f = new Function("sam(bytes,bool,uint256[])", "(bytes,bool,uint256[])");
         args = Tuple.of(
                 Strings.decode("dave", Strings.UTF_8),
                 true,
                 new BigInteger[] { BigInteger.ONE, BigInteger.valueOf(2), BigInteger.valueOf(3) }
         );
+        call = f.encodeCall(args).array();
+        returnVals = f.getOutputTypes().encode(args).array();
     }
 
     @Benchmark
@@ -72,4 +80,38 @@ public class MeasureFunction {
     public void encode_call(Blackhole blackhole) {
         blackhole.consume(f.encodeCall(args));
     }
-}
\ No newline at end of file
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode_call_pooled(Blackhole blackhole) {
+        final ByteBuffer bb = f.encodeCall(args, pool);
+        blackhole.consume(bb.get(bb.limit() - 1));
+        pool.release(bb);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode_call_trusted(Blackhole blackhole) {
+        blackhole.consume(f.encodeCallTrusted(args));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void decode_call(Blackhole blackhole) {
+        blackhole.consume(f.decodeCall(call));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void decode_return(Blackhole blackhole) {
+        blackhole.consume(f.decodeReturn(returnVals));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.abi;
+
+import com.esaulpaugh.headlong.abi.PackedDecoder;
+import com.esaulpaugh.headlong.abi.Tuple;
+import com.esaulpaugh.headlong.abi.TupleType;
+import com.esaulpaugh.headlong.util.SuperSerial;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+@State(Scope.Thread)
+public class MeasureTupleType {
+
+    @Param({ "static", "dynamic", "nested", "large" })
+    public String shape;
+
+    private TupleType tupleType;
+    private Tuple values;
+    private ByteBuffer dest;
+    private byte[] encoded;
+    private byte[] packed;
+    private int[] lengthHints;
+    private String superSerial;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random r = new Random(shape.hashCode());
+        switch (shape) {
+        case "static":
+            tupleType = TupleType.parse("(uint256,address,bool,bytes32,int64)");
+            values = new Tuple(new BigInteger(255, r), new BigInteger(159, r), true, bytes(32, r), r.nextLong());
+            lengthHints = new int[0];
+            break;
+        case "dynamic": {
+            tupleType = TupleType.parse("(bytes,string,uint256[],bool)");
+            final BigInteger[] uints = new BigInteger[8];
+            for (int i = 0; i < uints.length; i++) {
+                uints[i] = new BigInteger(255, r);
+            }
+            final String str = "a string of moderate length";
+            values = new Tuple(bytes(100, r), str, uints, false);
+            lengthHints = new int[] { 100, str.length(), uints.length };
+            break;
+        }
+        case "nested": {
+            tupleType = TupleType.parse("((uint8,(bytes,string[])[])[],int64)");
+            final Tuple[] outer = new Tuple[3];
+            final int[] hints = new int[1 + 3 * (1 + 2 * 4)];
+            int h = 0;
+            hints[h++] = outer.length;
+            for (int i = 0; i < outer.length; i++) {
+                final Tuple[] inner = new Tuple[2];
+                hints[h++] = inner.length;
+                for (int j = 0; j < inner.length; j++) {
+                    inner[j] = new Tuple(bytes(10, r), new String[] { "ab", "cde" });
+                    hints[h++] = 10;
+                    hints[h++] = 2;
+                    hints[h++] = 2;
+                    hints[h++] = 3;
+                }
+                outer[i] = new Tuple(i, inner);
+            }
+            values = new Tuple(outer, r.nextLong());
+            lengthHints = hints;
+            break;
+        }
+        default: {
+            tupleType = TupleType.parse("(uint256[256],bytes[64])");
+            final BigInteger[] uints = new BigInteger[256];
+            for (int i = 0; i < uints.length; i++) {
+                uints[i] = new BigInteger(255, r);
+            }
+            final byte[][] byteArrays = new byte[64][];
+            for (int i = 0; i < byteArrays.length; i++) {
+                byteArrays[i] = bytes(32, r);
+            }
+            values = new Tuple(uints, byteArrays);
+            lengthHints = new int[64];
+            Arrays.fill(lengthHints, 32);
+        }
+        }
+        encoded = tupleType.encode(values).array();
+        dest = ByteBuffer.allocate(encoded.length);
+        packed = tupleType.encodePacked(values).array();
+        superSerial = SuperSerial.serialize(tupleType, values, true);
+    }
+
+    private static byte[] bytes(int len, Random r) {
+        final byte[] bytes = new byte[len];
+        r.nextBytes(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode(Blackhole blackhole) {
+        dest.clear();
+        blackhole.consume(tupleType.encode(values, dest));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void decode(Blackhole blackhole) {
+        blackhole.consume(tupleType.decode(encoded));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode_packed(Blackhole blackhole) {
+        blackhole.consume(tupleType.encodePacked(values));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void decode_packed(Blackhole blackhole) {
+        blackhole.consume(PackedDecoder.decode(tupleType, packed, lengthHints));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void super_serial_serialize(Blackhole blackhole) {
+        blackhole.consume(SuperSerial.serialize(tupleType, values, true));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void super_serial_deserialize(Blackhole blackhole) {
+        blackhole.consume(SuperSerial.deserialize(tupleType, superSerial, true));
+    }
+}
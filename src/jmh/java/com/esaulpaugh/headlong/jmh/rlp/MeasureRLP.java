@@ -0,0 +1,153 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.rlp;
+
+import com.esaulpaugh.headlong.rlp.RLPDecoder;
+import com.esaulpaugh.headlong.rlp.RLPEncoder;
+import com.esaulpaugh.headlong.rlp.RLPIndex;
+import com.esaulpaugh.headlong.rlp.RLPItem;
+import com.esaulpaugh.headlong.rlp.RLPList;
+import com.esaulpaugh.headlong.rlp.util.Notation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static com.esaulpaugh.headlong.rlp.RLPDecoder.RLP_STRICT;
+
+@State(Scope.Thread)
+public class MeasureRLP {
+
+    @Param({ "8", "256" })
+    public int numElements;
+
+    private Object[] elements;
+    private byte[] encodedList;
+    private byte[] encodedSequence;
+    private RLPIndex index;
+    private RLPDecoder limited;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random r = new Random(numElements);
+        elements = new Object[numElements];
+        for (int i = 0; i < numElements; i++) {
+            if (i % 4 == 3) {
+                elements[i] = new Object[] { new byte[] { (byte) i }, new byte[r.nextInt(20)] };
+            } else {
+                final byte[] bytes = new byte[r.nextInt(70)];
+                r.nextBytes(bytes);
+                elements[i] = bytes;
+            }
+        }
+        encodedList = RLPEncoder.encodeAsList(elements);
+        encodedSequence = RLPEncoder.encodeSequentially(elements);
+        index = RLP_STRICT.index(encodedSequence);
+        limited = RLPDecoder.builder().maxDepth(4).maxItemLength(1 << 16).maxListElements(1024).maxTotalBytes(1 << 20).build();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void encode_as_list(Blackhole blackhole) {
+        blackhole.consume(RLPEncoder.encodeAsList(elements));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void wrap_and_iterate(Blackhole blackhole) {
+        final RLPList list = RLP_STRICT.wrapList(encodedList);
+        final Iterator<RLPItem> iter = list.iterator(RLP_STRICT);
+        while (iter.hasNext()) {
+            blackhole.consume(iter.next().dataLength);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void wrap_and_iterate_limited(Blackhole blackhole) {
+        final RLPList list = limited.wrapList(encodedList);
+        final Iterator<RLPItem> iter = list.iterator(limited);
+        while (iter.hasNext()) {
+            blackhole.consume(iter.next().dataLength);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void validate(Blackhole blackhole) {
+        blackhole.consume(RLP_STRICT.validate(encodedList, 0, encodedList.length));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void stream(Blackhole blackhole) {
+        for (RLPItem item : RLP_STRICT.stream(encodedSequence)) {
+            blackhole.consume(item.dataLength);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void get_last_by_scan(Blackhole blackhole) {
+        blackhole.consume(RLP_STRICT.collectN(encodedSequence, numElements).get(numElements - 1));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void get_last_by_index(Blackhole blackhole) {
+        blackhole.consume(index.get(numElements - 1));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void notation_for_encoding(Blackhole blackhole) {
+        blackhole.consume(Notation.forEncoding(encodedList).toString());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void notation_parse(Blackhole blackhole) {
+        blackhole.consume(Notation.forEncoding(encodedList).parse());
+    }
+}
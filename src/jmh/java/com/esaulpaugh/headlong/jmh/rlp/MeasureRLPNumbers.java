@@ -0,0 +1,81 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.rlp;
+
+import com.esaulpaugh.headlong.rlp.RLPEncoder;
+import com.esaulpaugh.headlong.rlp.RLPItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+
+import static com.esaulpaugh.headlong.rlp.RLPDecoder.RLP_STRICT;
+
+/** Numeric reads of the widths found in transactions: nonces, gas limits and values. */
+@State(Scope.Thread)
+public class MeasureRLPNumbers {
+
+    @Param({ "2", "7", "32" })
+    public int width;
+
+    private RLPItem item;
+    private final long[] limbs = new long[4];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final byte[] data = new byte[width];
+        for (int i = 0; i < width; i++) {
+            data[i] = (byte) (0x71 + i);
+        }
+        item = RLP_STRICT.wrap(RLPEncoder.encodeString(data));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void as_big_int(Blackhole blackhole) {
+        blackhole.consume(item.asBigInt());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void as_uint256(Blackhole blackhole) {
+        item.asUInt256(limbs);
+        blackhole.consume(limbs[3]);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void as_big_int_baseline(Blackhole blackhole) { // the allocating path that as_big_int takes for widths over 8
+        final byte[] arr = new byte[1 + item.dataLength];
+        item.exportData(arr, 1);
+        blackhole.consume(new BigInteger(arr));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.rlp;
+
+import com.esaulpaugh.headlong.rlp.MerklePatriciaTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/** Transaction-root style tries keyed by RLP-encoded index. */
+@State(Scope.Thread)
+public class MeasureTrie {
+
+    @Param({ "16", "256" })
+    public int numValues;
+
+    private byte[][] keys;
+    private byte[][] values;
+    private MerklePatriciaTrie trie;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random r = new Random(numValues);
+        keys = new byte[numValues][];
+        values = new byte[numValues][];
+        trie = new MerklePatriciaTrie();
+        for (int i = 0; i < numValues; i++) {
+            keys[i] = MerklePatriciaTrie.indexKey(i);
+            values[i] = new byte[100 + r.nextInt(200)];
+            r.nextBytes(values[i]);
+            trie.put(keys[i], values[i]);
+        }
+        trie.root();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void build_and_root(Blackhole blackhole) {
+        final MerklePatriciaTrie t = new MerklePatriciaTrie();
+        for (int i = 0; i < numValues; i++) {
+            t.put(keys[i], values[i]);
+        }
+        blackhole.consume(t.root());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void update_one_and_root(Blackhole blackhole) {
+        final int i = next++ % numValues;
+        trie.put(keys[i], values[numValues - 1 - i]);
+        blackhole.consume(trie.root());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+   Copyright 2018 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.jmh.util;
+
+import com.esaulpaugh.headlong.util.FastHex;
+import com.esaulpaugh.headlong.util.Strings;
+import com.joemelsha.crypto.hash.Keccak;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+@State(Scope.Thread)
+public class MeasureStrings {
+
+    @Param({ "32", "1024" })
+    public int size;
+
+    private final Keccak keccak = new Keccak(256);
+    private byte[] bytes;
+    private String hex;
+    private String base64;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        hex = FastHex.encodeToString(bytes);
+        base64 = Strings.encode(bytes, Strings.BASE_64_URL_SAFE);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void hex_encode(Blackhole blackhole) {
+        blackhole.consume(FastHex.encodeToString(bytes));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void hex_decode(Blackhole blackhole) {
+        blackhole.consume(FastHex.decode(hex));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void base64_encode(Blackhole blackhole) {
+        blackhole.consume(Strings.encode(bytes, Strings.BASE_64_URL_SAFE));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void base64_decode(Blackhole blackhole) {
+        blackhole.consume(Strings.decode(base64, Strings.BASE_64_URL_SAFE));
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 1)
+    public void keccak_256(Blackhole blackhole) {
+        blackhole.consume(keccak.digest(bytes));
+    }
+}
@@ -19,15 +19,28 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.esaulpaugh.headlong.util.JsonUtils.getArray;
 import static com.esaulpaugh.headlong.util.JsonUtils.getBoolean;
 import static com.esaulpaugh.headlong.util.JsonUtils.getString;
-import static com.esaulpaugh.headlong.util.JsonUtils.parseArray;
 import static com.esaulpaugh.headlong.util.JsonUtils.parseObject;
 
 /** For parsing JSON representations of {@link ABIObject}s according to the ABI specification. */
@@ -69,40 +82,254 @@ public final class ABIJSON {
         return parseObjects(arrayJson, false, true, Event.class);
     }
 
+    public static List<Function> parseFunctions(Reader arrayJson) throws IOException {
+        return parseObjects(arrayJson, true, false, null, Function.class);
+    }
+
+    public static List<Event> parseEvents(Reader arrayJson) throws IOException {
+        return parseObjects(arrayJson, false, true, null, Event.class);
+    }
+
+    /**
+     * Reads a JSON array of ABI objects token by token, without building an intermediate tree. Objects which are
+     * rejected by type or by name are skipped before any of their parameter types are created.
+     *
+     * @param arrayJson  the JSON array
+     * @param functions  whether to include functions (including constructors, fallbacks and receives)
+     * @param events     whether to include events
+     * @param nameFilter if non-null, only objects whose name (which may be null) satisfies this predicate are included
+     * @return the objects, in order
+     * @throws IOException  if an I/O error occurs or the JSON is malformed
+     */
+    public static List<ABIObject> parseObjects(Reader arrayJson, boolean functions, boolean events, Predicate<String> nameFilter) throws IOException {
+        return parseObjects(arrayJson, functions, events, nameFilter, ABIObject.class);
+    }
+
+    /**
+     * Parses, in parallel, every regular file in the given directory whose name ends in ".json".
+     *
+     * @param dir        the directory containing the JSON ABI files
+     * @param functions  whether to include functions
+     * @param events     whether to include events
+     * @param nameFilter if non-null, only objects whose name satisfies this predicate are included
+     * @return a map of each file to its objects
+     * @throws IOException  if an I/O error occurs or any file's JSON is malformed
+     * @see #parseObjects(Reader, boolean, boolean, Predicate)
+     */
+    public static Map<Path, List<ABIObject>> parseDirectory(Path dir, boolean functions, boolean events, Predicate<String> nameFilter) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(f -> f.getFileName().toString().endsWith(".json") && Files.isRegularFile(f))
+                    .collect(Collectors.toList());
+        }
+        try {
+            return files.parallelStream()
+                    .collect(Collectors.toConcurrentMap(f -> f, f -> {
+                        try (Reader reader = Files.newBufferedReader(f, StandardCharsets.UTF_8)) {
+                            return parseObjects(reader, functions, events, nameFilter);
+                        } catch (IOException io) {
+                            throw new UncheckedIOException(io);
+                        }
+                    }));
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+    }
+
     private static <T extends ABIObject> List<T> parseObjects(final String json,
                                                              final boolean functions,
                                                              final boolean events,
                                                              final Class<T> classOfT) {
+        try {
+            return parseObjects(new StringReader(json), functions, events, null, classOfT);
+        } catch (IOException io) {
+            throw new JsonSyntaxException(io);
+        }
+    }
+
+    private static <T extends ABIObject> List<T> parseObjects(final Reader json,
+                                                             final boolean functions,
+                                                             final boolean events,
+                                                             final Predicate<String> nameFilter,
+                                                             final Class<T> classOfT) throws IOException {
         final MessageDigest defaultDigest = functions ? Function.newDefaultDigest() : null;
 
         final List<T> abiObjects = new ArrayList<>();
-        for (JsonElement e : parseArray(json)) {
-            if (e.isJsonObject()) {
-                JsonObject object = (JsonObject) e;
-                switch (getString(object, TYPE)) {
-                case FUNCTION:
-                case RECEIVE:
-                case FALLBACK:
-                case CONSTRUCTOR:
-                    if (functions) {
-                        abiObjects.add(classOfT.cast(parseFunction(object, defaultDigest)));
-                    }
-                    break;
-                case EVENT:
-                    if (events) {
-                        abiObjects.add(classOfT.cast(parseEvent(object)));
-                    }
-                    break;
-                default: /* skip */
+        final JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                ABIObject o = readObject(reader, functions, events, nameFilter, defaultDigest);
+                if (o != null) {
+                    abiObjects.add(classOfT.cast(o));
                 }
+            } else {
+                reader.skipValue();
             }
         }
+        reader.endArray();
         return abiObjects;
     }
 
+    private static ABIObject readObject(JsonReader reader, boolean functions, boolean events, Predicate<String> nameFilter, MessageDigest digest) throws IOException {
+        String type = null;
+        String name = null;
+        String stateMutability = null;
+        boolean anonymous = false;
+        List<Param> inputs = null;
+        List<Param> outputs = null;
+        boolean rejected = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            switch (key) {
+            case TYPE:
+                type = nextString(reader, key);
+                rejected |= !isIncluded(type, functions, events);
+                break;
+            case NAME:
+                name = nextString(reader, key);
+                rejected |= nameFilter != null && !nameFilter.test(name);
+                break;
+            case STATE_MUTABILITY: stateMutability = nextString(reader, key); break;
+            case ANONYMOUS: anonymous = nextBoolean(reader, key, false); break;
+            case INPUTS:
+                if (rejected) {
+                    reader.skipValue();
+                } else {
+                    inputs = readParams(reader, key);
+                }
+                break;
+            case OUTPUTS:
+                if (rejected) {
+                    reader.skipValue();
+                } else {
+                    outputs = readParams(reader, key);
+                }
+                break;
+            default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (rejected || !isIncluded(type, functions, events) || (nameFilter != null && !nameFilter.test(name))) {
+            return null;
+        }
+        if (EVENT.equals(type)) {
+            if (inputs != null) {
+                final int inputsLen = inputs.size();
+                final ABIType<?>[] inputsArray = new ABIType<?>[inputsLen];
+                final boolean[] indexed = new boolean[inputsLen];
+                for (int i = 0; i < inputsLen; i++) {
+                    Param input = inputs.get(i);
+                    inputsArray[i] = buildType(input);
+                    indexed[i] = input.indexed; // like getBoolean(inputObj, INDEXED), throws if "indexed" is absent
+                }
+                return new Event(name, TupleType.wrap(inputsArray), indexed, anonymous);
+            }
+            throw new IllegalArgumentException("array \"" + INPUTS + "\" null or not found");
+        }
+        return new Function(parseFunctionType(type), name, buildTypes(inputs), buildTypes(outputs), stateMutability, digest);
+    }
+
+    private static boolean isIncluded(String type, boolean functions, boolean events) {
+        if (type == null) {
+            return functions;
+        }
+        switch (type) {
+        case FUNCTION:
+        case RECEIVE:
+        case FALLBACK:
+        case CONSTRUCTOR: return functions;
+        case EVENT: return events;
+        default: return false;
+        }
+    }
+
+    /** A parameter as read from JSON, before its {@link ABIType} is created. */
+    private static final class Param {
+        String name;
+        String type;
+        Boolean indexed;
+        List<Param> components;
+    }
+
+    private static List<Param> readParams(JsonReader reader, String key) throws IOException {
+        switch (reader.peek()) {
+        case NULL: reader.nextNull(); return null;
+        case BEGIN_ARRAY:
+            final List<Param> params = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                params.add(readParam(reader));
+            }
+            reader.endArray();
+            return params;
+        default: throw new IllegalArgumentException(key + " is not an array");
+        }
+    }
+
+    private static Param readParam(JsonReader reader) throws IOException {
+        final Param param = new Param();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            switch (key) {
+            case NAME: param.name = nextString(reader, key); break;
+            case TYPE: param.type = nextString(reader, key); break;
+            case INDEXED: param.indexed = nextBoolean(reader, key, null); break;
+            case COMPONENTS: param.components = readParams(reader, key); break;
+            default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return param;
+    }
+
+    private static String nextString(JsonReader reader, String key) throws IOException {
+        switch (reader.peek()) {
+        case NULL: reader.nextNull(); return null;
+        case STRING: return reader.nextString();
+        default: throw new IllegalArgumentException(key + " is not a string");
+        }
+    }
+
+    private static Boolean nextBoolean(JsonReader reader, String key, Boolean defaultVal) throws IOException {
+        switch (reader.peek()) {
+        case NULL: reader.nextNull(); return defaultVal;
+        case BOOLEAN: return reader.nextBoolean();
+        default: throw new IllegalArgumentException(key + " is not a primitive");
+        }
+    }
+
+    private static TupleType buildTypes(List<Param> params) {
+        if (params != null) {
+            final ABIType<?>[] elementsArray = new ABIType<?>[params.size()];
+            for (int i = 0; i < elementsArray.length; i++) {
+                elementsArray[i] = buildType(params.get(i));
+            }
+            return TupleType.wrap(elementsArray);
+        }
+        return TupleType.EMPTY;
+    }
+
+    private static ABIType<?> buildType(Param param) {
+        if(param.type.startsWith(TUPLE)) {
+            if (param.components == null) {
+                throw new IllegalArgumentException("array \"" + COMPONENTS + "\" null or not found");
+            }
+            return TypeFactory.createFromBase(
+                    buildTypes(param.components),
+                    param.type.substring(TUPLE.length()),
+                    param.name
+            );
+        }
+        return TypeFactory.create(param.type, param.name);
+    }
+
     public static Function parseFunction(JsonObject function, MessageDigest messageDigest) {
         return new Function(
-                parseFunctionType(function),
+                parseFunctionType(getString(function, TYPE)),
                 getString(function, NAME),
                 parseTypes(getArray(function, INPUTS)),
                 parseTypes(getArray(function, OUTPUTS)),
@@ -111,8 +338,7 @@ public final class ABIJSON {
         );
     }
 // ---------------------------------------------------------------------------------------------------------------------
-    private static Function.Type parseFunctionType(JsonObject function) {
-        String type = getString(function, TYPE);
+    private static Function.Type parseFunctionType(String type) {
         if(type != null) {
             switch (type) {
             case FUNCTION: return Function.Type.FUNCTION;
@@ -0,0 +1,266 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact binary format for {@link Function}s and {@link Event}s. Types are stored as trees rather than as type
+ * strings and function selectors are stored precomputed, so that restoring a snapshot requires neither JSON parsing, nor
+ * type string parsing, nor hashing.
+ */
+public final class ABISnapshot {
+
+    private ABISnapshot() {}
+
+    private static final int MAGIC = 0x41424953; // "ABIS"
+    private static final byte VERSION = 1;
+
+    private static final byte EVENT = -1; // non-negative kinds are Function.Type ordinals
+
+    private static final byte BASE = 0;
+    private static final byte ARRAY = 1;
+    private static final byte TUPLE = 2;
+
+    private static final Function.Type[] FUNCTION_TYPES = Function.Type.values();
+
+    public static byte[] toBytes(List<? extends ABIObject> objects) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            write(objects, baos);
+        } catch (IOException io) {
+            throw new RuntimeException(io);
+        }
+        return baos.toByteArray();
+    }
+
+    public static void write(List<? extends ABIObject> objects, Path file) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file)) {
+            write(objects, os);
+        }
+    }
+
+    /**
+     * Writes the given objects to the stream in snapshot format.
+     *
+     * @param objects the functions and events
+     * @param out     the destination
+     * @throws IOException  if an I/O error occurs
+     */
+    public static void write(List<? extends ABIObject> objects, OutputStream out) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+        dos.writeInt(MAGIC);
+        dos.writeByte(VERSION);
+        dos.writeInt(objects.size());
+        for (ABIObject o : objects) {
+            if (o instanceof Function) {
+                final Function f = (Function) o;
+                dos.writeByte(f.getType().ordinal());
+                writeString(f.getName(), dos);
+                writeString(f.getStateMutability(), dos);
+                writeString(f.getHashAlgorithm(), dos);
+                dos.write(f.selector());
+                writeType(f.getParamTypes(), dos);
+                writeType(f.getOutputTypes(), dos);
+            } else {
+                final Event e = (Event) o;
+                dos.writeByte(EVENT);
+                writeString(e.getName(), dos);
+                dos.writeBoolean(e.isAnonymous());
+                writeType(e.getParams(), dos);
+                for (boolean indexed : e.getIndexManifest()) {
+                    dos.writeBoolean(indexed);
+                }
+            }
+        }
+        dos.flush();
+    }
+
+    private static void writeType(ABIType<?> type, DataOutputStream dos) throws IOException {
+        switch (type.typeCode()) {
+        case ABIType.TYPE_CODE_TUPLE:
+            final ABIType<?>[] elements = ((TupleType) type).elementTypes;
+            dos.writeByte(TUPLE);
+            dos.writeInt(elements.length);
+            for (ABIType<?> e : elements) {
+                writeType(e, dos);
+            }
+            break;
+        case ABIType.TYPE_CODE_ARRAY:
+            if (type.canonicalType.endsWith("]")) { // not bytes, string, bytesN or function
+                final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+                dos.writeByte(ARRAY);
+                dos.writeInt(arrayType.getLength());
+                writeType(arrayType.elementType, dos);
+                break;
+            }
+            /* fall through */
+        default:
+            dos.writeByte(BASE);
+            writeString(type.canonicalType, dos);
+        }
+        writeString(type.getName(), dos);
+    }
+
+    private static void writeString(String s, DataOutputStream dos) throws IOException {
+        if (s == null) {
+            dos.writeInt(-1);
+        } else {
+            final byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            dos.writeInt(utf8.length);
+            dos.write(utf8);
+        }
+    }
+// ---------------------------------------------------------------------------------------------------------------------
+    public static List<ABIObject> read(byte[] snapshot) {
+        return read(ByteBuffer.wrap(snapshot));
+    }
+
+    /**
+     * Memory-maps and reads the given snapshot file.
+     *
+     * @param file  the snapshot file
+     * @return  the functions and events
+     * @throws IOException  if an I/O error occurs
+     */
+    public static List<ABIObject> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads functions and events from the snapshot at the buffer's current position.
+     *
+     * @param snapshot  the buffer containing the snapshot
+     * @return  the functions and events
+     * @throws IllegalArgumentException if the snapshot is malformed or truncated
+     */
+    public static List<ABIObject> read(ByteBuffer snapshot) {
+        try {
+            if (snapshot.getInt() != MAGIC) {
+                throw new IllegalArgumentException("not a snapshot");
+            }
+            final byte version = snapshot.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported snapshot version: " + version);
+            }
+            final int count = readCount(snapshot);
+            final List<ABIObject> objects = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                objects.add(readObject(snapshot));
+            }
+            return objects;
+        } catch (BufferUnderflowException bue) {
+            throw new IllegalArgumentException("snapshot truncated", bue);
+        }
+    }
+
+    private static ABIObject readObject(ByteBuffer bb) {
+        final byte kind = bb.get();
+        if (kind == EVENT) {
+            final String name = readString(bb);
+            final boolean anonymous = readBoolean(bb);
+            final ABIType<?> params = readType(bb);
+            if (!(params instanceof TupleType)) {
+                throw new IllegalArgumentException("event params must be a tuple");
+            }
+            final boolean[] indexed = new boolean[((TupleType) params).elementTypes.length];
+            for (int i = 0; i < indexed.length; i++) {
+                indexed[i] = readBoolean(bb);
+            }
+            return new Event(name, (TupleType) params, indexed, anonymous);
+        }
+        if (kind < 0 || kind >= FUNCTION_TYPES.length) {
+            throw new IllegalArgumentException("unknown object kind: " + kind);
+        }
+        final String name = readString(bb);
+        final String stateMutability = readString(bb);
+        final String hashAlgorithm = readString(bb);
+        final byte[] selector = new byte[Function.SELECTOR_LEN];
+        bb.get(selector);
+        final ABIType<?> inputs = readType(bb);
+        final ABIType<?> outputs = readType(bb);
+        if (!(inputs instanceof TupleType) || !(outputs instanceof TupleType)) {
+            throw new IllegalArgumentException("function inputs and outputs must be tuples");
+        }
+        return new Function(FUNCTION_TYPES[kind], name, (TupleType) inputs, (TupleType) outputs, stateMutability, hashAlgorithm, selector);
+    }
+
+    private static ABIType<?> readType(ByteBuffer bb) {
+        final byte tag = bb.get();
+        switch (tag) {
+        case BASE: {
+            final String canonicalType = readString(bb);
+            if (canonicalType == null || canonicalType.indexOf('(') >= 0 || canonicalType.indexOf('[') >= 0) {
+                throw new IllegalArgumentException("illegal base type: " + canonicalType);
+            }
+            return TypeFactory.create(canonicalType, readString(bb));
+        }
+        case ARRAY: {
+            final int length = bb.getInt();
+            final ABIType<?> elementType = readType(bb);
+            return TypeFactory.createArray(elementType, length, readString(bb));
+        }
+        case TUPLE: {
+            final ABIType<?>[] elements = new ABIType<?>[readCount(bb)];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = readType(bb);
+            }
+            return TupleType.wrap(elements).setName(readString(bb));
+        }
+        default: throw new IllegalArgumentException("unknown type tag: " + tag);
+        }
+    }
+
+    private static int readCount(ByteBuffer bb) {
+        final int count = bb.getInt();
+        if (count < 0 || count > bb.remaining()) { // every element occupies at least one byte
+            throw new IllegalArgumentException("illegal count: " + count);
+        }
+        return count;
+    }
+
+    private static boolean readBoolean(ByteBuffer bb) {
+        return bb.get() != 0;
+    }
+
+    private static String readString(ByteBuffer bb) {
+        final int len = bb.getInt();
+        if (len == -1) {
+            return null;
+        }
+        if (len < 0 || len > bb.remaining()) {
+            throw new IllegalArgumentException("illegal string length: " + len);
+        }
+        final byte[] utf8 = new byte[len];
+        bb.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -116,6 +116,10 @@ public abstract class ABIType<J> implements Serializable {
      */
     abstract J decode(ByteBuffer buffer, byte[] unitBuffer);
 
+    J decode(ByteBuffer buffer, byte[] unitBuffer, DecodeMode mode) {
+        return decode(buffer, unitBuffer);
+    }
+
     /**
      * Parses and validates a string representation of J. Not supported by {@link ArrayType}, {@link TupleType}.
      *
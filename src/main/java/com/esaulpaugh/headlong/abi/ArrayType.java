@@ -22,7 +22,8 @@ import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
-import java.util.function.Supplier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
 import static com.esaulpaugh.headlong.util.Strings.UTF_8;
@@ -47,11 +48,16 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
 
     static final int DYNAMIC_LENGTH = -1;
 
+    /** Arrays with fewer elements than this are encoded and decoded serially even when a {@link ForkJoinPool} is given. */
+    static final int PARALLEL_THRESHOLD = 1024;
+    private static final int MIN_ELEMENTS_PER_TASK = 64;
+
     final E elementType;
     final int length;
     final boolean isString;
 
     private final String arrayClassName;
+    private final int elementTypeCode; // cached so that dispatch on the element type needs no virtual call
 
     ArrayType(String canonicalType, Class<J> clazz, boolean dynamic, E elementType, int length, String arrayClassName) {
         super(canonicalType, clazz, dynamic);
@@ -59,6 +65,7 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
         this.length = length;
         this.arrayClassName = arrayClassName;
         this.isString = clazz == STRING_CLASS;
+        this.elementTypeCode = elementType.typeCode();
     }
 
     public E getElementType() {
@@ -93,7 +100,7 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
     @Override
     int byteLength(Object value) {
         final int len;
-        switch (elementType.typeCode()) {
+        switch (elementTypeCode) {
         case TYPE_CODE_BOOLEAN: len = ((boolean[]) value).length * UNIT_LENGTH_BYTES; break;
         case TYPE_CODE_BYTE: len = Integers.roundLengthUp((!isString ? (byte[]) value : Strings.decode((String) value, UTF_8)).length, UNIT_LENGTH_BYTES); break;
         case TYPE_CODE_INT: len = ((int[]) value).length * UNIT_LENGTH_BYTES; break;
@@ -133,7 +140,7 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
             return staticByteLengthPacked();
         }
         final ABIType<?> elementType = this.elementType;
-        switch (elementType.typeCode()) {
+        switch (elementTypeCode) {
         case TYPE_CODE_BOOLEAN: return ((boolean[]) value).length; // * 1
         case TYPE_CODE_BYTE: return (!isString ? (byte[]) value : Strings.decode((String) value, UTF_8)).length; // * 1
         case TYPE_CODE_INT: return ((int[]) value).length * elementType.byteLengthPacked(null);
@@ -159,7 +166,7 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
         validateClass(value);
 
         final int staticLen;
-        switch (elementType.typeCode()) {
+        switch (elementTypeCode) {
         case TYPE_CODE_BOOLEAN: staticLen = checkLength(((boolean[]) value).length, value) * UNIT_LENGTH_BYTES; break;
         case TYPE_CODE_BYTE:
             byte[] bytes = !isString ? (byte[]) value : Strings.decode((String) value, UTF_8);
@@ -274,29 +281,56 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
         encodeArrayTail(!isString ? value : Strings.decode((String) value, UTF_8), dest);
     }
 
-    private void insert(Supplier<Integer> supplyLength, Runnable insert, ByteBuffer dest) {
+    private void insertLength(int len, ByteBuffer dest) {
         if(length == DYNAMIC_LENGTH) {
-            Encoding.insertInt(supplyLength.get(), dest);
+            Encoding.insertInt(len, dest);
         }
-        insert.run();
     }
 
     private void encodeArrayTail(Object value, ByteBuffer dest) {
-        switch (elementType.typeCode()) {
-        case TYPE_CODE_BOOLEAN: insert(() -> ((boolean[]) value).length, () -> insertBooleans((boolean[]) value, dest), dest); return;
-        case TYPE_CODE_BYTE: insert(() -> ((byte[]) value).length, () -> Encoding.insertBytesPadded((byte[]) value, dest), dest); return;
-        case TYPE_CODE_INT: insert(() -> ((int[]) value).length, () -> insertInts((int[]) value, dest), dest); return;
-        case TYPE_CODE_LONG: insert(() -> ((long[]) value).length, () -> insertLongs((long[]) value, dest), dest); return;
-        case TYPE_CODE_BIG_INTEGER: insert(() -> ((BigInteger[]) value).length, () -> Encoding.insertBigIntegers((BigInteger[]) value, UNIT_LENGTH_BYTES, dest), dest); return;
-        case TYPE_CODE_BIG_DECIMAL: insert(() -> ((BigDecimal[]) value).length, () -> Encoding.insertBigDecimals((BigDecimal[]) value, UNIT_LENGTH_BYTES, dest), dest); return;
+        switch (elementTypeCode) {
+        case TYPE_CODE_BOOLEAN: {
+            final boolean[] booleans = (boolean[]) value;
+            insertLength(booleans.length, dest);
+            insertBooleans(booleans, dest);
+            return;
+        }
+        case TYPE_CODE_BYTE: {
+            final byte[] bytes = (byte[]) value;
+            insertLength(bytes.length, dest);
+            Encoding.insertBytesPadded(bytes, dest);
+            return;
+        }
+        case TYPE_CODE_INT: {
+            final int[] ints = (int[]) value;
+            insertLength(ints.length, dest);
+            insertInts(ints, dest);
+            return;
+        }
+        case TYPE_CODE_LONG: {
+            final long[] longs = (long[]) value;
+            insertLength(longs.length, dest);
+            insertLongs(longs, dest);
+            return;
+        }
+        case TYPE_CODE_BIG_INTEGER: {
+            final BigInteger[] bigInts = (BigInteger[]) value;
+            insertLength(bigInts.length, dest);
+            Encoding.insertBigIntegers(bigInts, UNIT_LENGTH_BYTES, dest);
+            return;
+        }
+        case TYPE_CODE_BIG_DECIMAL: {
+            final BigDecimal[] bigDecs = (BigDecimal[]) value;
+            insertLength(bigDecs.length, dest);
+            Encoding.insertBigDecimals(bigDecs, UNIT_LENGTH_BYTES, dest);
+            return;
+        }
         case TYPE_CODE_ARRAY:  // note that type for String[] has elementType.typeCode() == TYPE_CODE_ARRAY
         case TYPE_CODE_TUPLE:
             final Object[] objects = (Object[]) value;
             final int len = objects.length;
             if(dynamic) {
-                if(length == DYNAMIC_LENGTH) {
-                    Encoding.insertInt(len, dest); // insert array length
-                }
+                insertLength(len, dest); // insert array length
                 if (elementType.dynamic) { // if elements are dynamic
                     int nextOffset = len * UNIT_LENGTH_BYTES;
                     for (int i = 0; i < len; i++) {
@@ -312,6 +346,75 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
         }
     }
 
+    /**
+     * Like {@link #encodeTail(Object, ByteBuffer)}, except that the elements of large arrays of arrays or of tuples are
+     * encoded concurrently. Each element's offset into the tail is known from its byte length, so tasks write to
+     * disjoint regions of {@code dest} through their own views of it.
+     */
+    void encodeTail(Object value, ByteBuffer dest, ForkJoinPool pool) {
+        if(elementTypeCode != TYPE_CODE_ARRAY && elementTypeCode != TYPE_CODE_TUPLE || ((Object[]) value).length < PARALLEL_THRESHOLD) {
+            encodeTail(value, dest);
+            return;
+        }
+        final Object[] objects = (Object[]) value;
+        final int len = objects.length;
+        insertLength(len, dest);
+        final int[] starts = new int[len + 1]; // relative to the start of the elements
+        int nextOffset = elementType.dynamic ? len * UNIT_LENGTH_BYTES : 0;
+        for (int i = 0; i < len; i++) {
+            starts[i] = nextOffset;
+            nextOffset += elementType.byteLength(objects[i]);
+        }
+        starts[len] = nextOffset;
+        final int elementsStart = dest.position();
+        if (elementType.dynamic) {
+            for (int i = 0; i < len; i++) {
+                Encoding.insertInt(starts[i], dest);
+            }
+        }
+        final int minLen = Math.max(MIN_ELEMENTS_PER_TASK, len / (pool.getParallelism() * 4));
+        pool.invoke(new EncodeTask(elementType, objects, starts, dest, elementsStart, 0, len, minLen));
+        dest.position(elementsStart + starts[len]);
+    }
+
+    private static final class EncodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 5236513829402389553L;
+
+        private final ABIType<?> elementType;
+        private final Object[] objects;
+        private final int[] starts;
+        private final ByteBuffer dest;
+        private final int elementsStart;
+        private final int lo, hi, minLen;
+
+        EncodeTask(ABIType<?> elementType, Object[] objects, int[] starts, ByteBuffer dest, int elementsStart, int lo, int hi, int minLen) {
+            this.elementType = elementType;
+            this.objects = objects;
+            this.starts = starts;
+            this.dest = dest;
+            this.elementsStart = elementsStart;
+            this.lo = lo;
+            this.hi = hi;
+            this.minLen = minLen;
+        }
+
+        @Override
+        protected void compute() {
+            if(hi - lo > minLen) {
+                final int mid = (lo + hi) >>> 1;
+                invokeAll(new EncodeTask(elementType, objects, starts, dest, elementsStart, lo, mid, minLen),
+                        new EncodeTask(elementType, objects, starts, dest, elementsStart, mid, hi, minLen));
+                return;
+            }
+            final ByteBuffer view = dest.duplicate(); // independent position
+            view.position(elementsStart + starts[lo]);
+            for (int i = lo; i < hi; i++) {
+                elementType.encodeTail(objects[i], view);
+            }
+        }
+    }
+
     private static void insertBooleans(boolean[] bools, ByteBuffer dest) {
         for (boolean e : bools) {
             dest.put(e ? BooleanType.BOOLEAN_TRUE : BooleanType.BOOLEAN_FALSE);
@@ -331,29 +434,151 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     J decode(ByteBuffer bb, byte[] unitBuffer) {
+        return decode(bb, unitBuffer, DecodeMode.STRICT);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    J decode(ByteBuffer bb, byte[] unitBuffer, DecodeMode mode) {
+        if(mode == DecodeMode.LENIENT && elementType.dynamic) {
+            return (J) decodeLenient(bb, unitBuffer, new LenientBudget(bb.limit()));
+        }
         final int arrayLen = length == DYNAMIC_LENGTH
                 ? ARRAY_LENGTH_TYPE.decode(bb, unitBuffer)
                 : length;
 
-        switch (elementType.typeCode()) {
-        case TYPE_CODE_BOOLEAN: return (J) decodeBooleanArray(bb, arrayLen, unitBuffer);
+        final boolean check = mode != DecodeMode.STRICT_UNCHECKED;
+        switch (elementTypeCode) {
+        case TYPE_CODE_BOOLEAN: return (J) decodeBooleanArray(bb, arrayLen, unitBuffer, check);
         case TYPE_CODE_BYTE: return (J) decodeByteArray(bb, arrayLen);
-        case TYPE_CODE_INT: return (J) decodeIntArray((IntType) elementType, bb, arrayLen, unitBuffer);
-        case TYPE_CODE_LONG: return (J) decodeLongArray((LongType) elementType, bb, arrayLen, unitBuffer);
-        case TYPE_CODE_BIG_INTEGER: return (J) decodeBigIntegerArray((BigIntegerType) elementType, bb, arrayLen, unitBuffer);
-        case TYPE_CODE_BIG_DECIMAL: return (J) decodeBigDecimalArray((BigDecimalType) elementType, bb, arrayLen, unitBuffer);
+        case TYPE_CODE_INT: return (J) decodeIntArray((IntType) elementType, bb, arrayLen, unitBuffer, check);
+        case TYPE_CODE_LONG: return (J) decodeLongArray((LongType) elementType, bb, arrayLen, unitBuffer, check);
+        case TYPE_CODE_BIG_INTEGER: return (J) decodeBigIntegerArray((BigIntegerType) elementType, bb, arrayLen, unitBuffer, check);
+        case TYPE_CODE_BIG_DECIMAL: return (J) decodeBigDecimalArray((BigDecimalType) elementType, bb, arrayLen, unitBuffer, check);
         case TYPE_CODE_ARRAY:
-        case TYPE_CODE_TUPLE: return (J) decodeObjectArray(arrayLen, bb, unitBuffer);
+        case TYPE_CODE_TUPLE: return (J) decodeObjectArray(arrayLen, bb, unitBuffer, mode);
+        default: throw new Error();
+        }
+    }
+
+    /**
+     * Like {@link #decode(ByteBuffer, byte[])}, except that the elements of large arrays of arrays or of tuples are decoded
+     * concurrently. Dynamic elements are located via the offset table, which must describe contiguous elements; static
+     * elements are located by the stride measured from the first element.
+     */
+    Object decode(ByteBuffer bb, byte[] unitBuffer, ForkJoinPool pool) {
+        if(elementTypeCode != TYPE_CODE_ARRAY && elementTypeCode != TYPE_CODE_TUPLE) {
+            return decode(bb, unitBuffer);
+        }
+        final int mark = bb.position();
+        final int len = length == DYNAMIC_LENGTH
+                ? ARRAY_LENGTH_TYPE.decode(bb, unitBuffer)
+                : length;
+        if(len < PARALLEL_THRESHOLD) {
+            bb.position(mark);
+            return decode(bb, unitBuffer);
+        }
+        final Object[] dest = (Object[]) Array.newInstance(elementType.clazz, len);
+        final int elementsStart = bb.position();
+        final int[] starts = new int[len]; // relative to elementsStart
+        if(!elementType.dynamic) {
+            dest[0] = elementType.decode(bb, unitBuffer);
+            final int stride = bb.position() - elementsStart;
+            for (int i = 1; i < len; i++) {
+                starts[i] = i * stride;
+            }
+        } else {
+            for (int i = 0; i < len; i++) {
+                starts[i] = Encoding.OFFSET_TYPE.decode(bb, unitBuffer);
+            }
+            if(starts[0] != len * UNIT_LENGTH_BYTES) {
+                throw new IllegalArgumentException("unexpected offset: " + starts[0]);
+            }
+        }
+        final int minLen = Math.max(MIN_ELEMENTS_PER_TASK, len / (pool.getParallelism() * 4));
+        final int[] end = new int[1];
+        pool.invoke(new DecodeTask(elementType, dest, starts, bb, elementsStart, elementType.dynamic ? 0 : 1, len, minLen, end));
+        bb.position(end[0]);
+        return dest;
+    }
+
+    private static final class DecodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -2297208542357236207L;
+
+        private final ABIType<?> elementType;
+        private final Object[] dest;
+        private final int[] starts;
+        private final ByteBuffer bb;
+        private final int elementsStart;
+        private final int lo, hi, minLen;
+        private final int[] end;
+
+        DecodeTask(ABIType<?> elementType, Object[] dest, int[] starts, ByteBuffer bb, int elementsStart, int lo, int hi, int minLen, int[] end) {
+            this.elementType = elementType;
+            this.dest = dest;
+            this.starts = starts;
+            this.bb = bb;
+            this.elementsStart = elementsStart;
+            this.lo = lo;
+            this.hi = hi;
+            this.minLen = minLen;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if(hi - lo > minLen) {
+                final int mid = (lo + hi) >>> 1;
+                invokeAll(new DecodeTask(elementType, dest, starts, bb, elementsStart, lo, mid, minLen, end),
+                        new DecodeTask(elementType, dest, starts, bb, elementsStart, mid, hi, minLen, end));
+                return;
+            }
+            final ByteBuffer view = bb.duplicate(); // independent position
+            final byte[] unitBuffer = newUnitBuffer();
+            view.position(elementsStart + starts[lo]);
+            for (int i = lo; i < hi; i++) {
+                dest[i] = elementType.decode(view, unitBuffer);
+                final int next = i + 1;
+                if(next < starts.length && view.position() != elementsStart + starts[next]) {
+                    throw new IllegalArgumentException("unexpected offset: " + starts[next]);
+                }
+            }
+            if(hi == starts.length) {
+                end[0] = view.position();
+            }
+        }
+    }
+
+    /** Decodes elements {@code from} (inclusive) to {@code to} (exclusive) of an array of unit types into {@code dest}. */
+    void decodeUnits(ByteBuffer bb, Object dest, int from, int to, byte[] unitBuffer) {
+        switch (elementTypeCode) {
+        case TYPE_CODE_BOOLEAN: decodeBooleans(bb, (boolean[]) dest, from, to, unitBuffer, true); return;
+        case TYPE_CODE_INT: decodeInts((IntType) elementType, bb, (int[]) dest, from, to, unitBuffer, true); return;
+        case TYPE_CODE_LONG: decodeLongs((LongType) elementType, bb, (long[]) dest, from, to, unitBuffer, true); return;
+        case TYPE_CODE_BIG_INTEGER: decodeBigIntegers((BigIntegerType) elementType, bb, (BigInteger[]) dest, from, to, unitBuffer, true); return;
+        case TYPE_CODE_BIG_DECIMAL: decodeBigDecimals((BigDecimalType) elementType, bb, (BigDecimal[]) dest, from, to, unitBuffer, true); return;
         default: throw new Error();
         }
     }
 
-    private static boolean[] decodeBooleanArray(ByteBuffer bb, int arrayLen, byte[] unitBuffer) {
+    private static boolean[] decodeBooleanArray(ByteBuffer bb, int arrayLen, byte[] unitBuffer, boolean check) {
         boolean[] booleans = new boolean[arrayLen]; // elements are false by default
+        decodeBooleans(bb, booleans, 0, arrayLen, unitBuffer, check);
+        return booleans;
+    }
+
+    private static void decodeBooleans(ByteBuffer bb, boolean[] booleans, int from, int to, byte[] unitBuffer, boolean check) {
         final int booleanOffset = UNIT_LENGTH_BYTES - Byte.BYTES;
-        for(int i = 0; i < arrayLen; i++) {
+        if(!check) {
+            for (int i = from; i < to; i++) {
+                UnitType.skipHighBytes(bb, Byte.BYTES);
+                booleans[i] = bb.get() != 0;
+            }
+            return;
+        }
+        for(int i = from; i < to; i++) {
             bb.get(unitBuffer);
             for (int j = 0; j < booleanOffset; j++) {
                 if(unitBuffer[j] == 0) continue;
@@ -366,7 +591,6 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
                 throw new IllegalArgumentException("illegal boolean value @ " + (bb.position() - UNIT_LENGTH_BYTES));
             }
         }
-        return booleans;
     }
 
     private Object decodeByteArray(ByteBuffer bb, int arrayLen) {
@@ -377,54 +601,82 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
         return !isString ? out : Strings.encode(out, UTF_8);
     }
 
-    private static int[] decodeIntArray(IntType intType, ByteBuffer bb, int arrayLen, byte[] unitBuffer) {
+    private static int[] decodeIntArray(IntType intType, ByteBuffer bb, int arrayLen, byte[] unitBuffer, boolean check) {
         int[] ints = new int[arrayLen];
-        for (int i = 0; i < arrayLen; i++) {
-            ints[i] = decodeBigIntElement(intType, bb, unitBuffer).intValue();
-        }
+        decodeInts(intType, bb, ints, 0, arrayLen, unitBuffer, check);
         return ints;
     }
 
-    private static long[] decodeLongArray(LongType longType, ByteBuffer bb, int arrayLen, byte[] unitBuffer) {
-        long[] longs = new long[arrayLen];
-        for (int i = 0; i < arrayLen; i++) {
-            longs[i] = decodeBigIntElement(longType, bb, unitBuffer).longValue();
+    private static void decodeInts(IntType intType, ByteBuffer bb, int[] ints, int from, int to, byte[] unitBuffer, boolean check) {
+        for (int i = from; i < to; i++) {
+            if(check) {
+                ints[i] = decodeBigIntElement(intType, bb, unitBuffer).intValue();
+            } else {
+                UnitType.skipHighBytes(bb, Integer.BYTES);
+                ints[i] = bb.getInt();
+            }
         }
+    }
+
+    private static long[] decodeLongArray(LongType longType, ByteBuffer bb, int arrayLen, byte[] unitBuffer, boolean check) {
+        long[] longs = new long[arrayLen];
+        decodeLongs(longType, bb, longs, 0, arrayLen, unitBuffer, check);
         return longs;
     }
 
-    private static BigInteger[] decodeBigIntegerArray(BigIntegerType bigIntegerType, ByteBuffer bb, int arrayLen, byte[] unitBuffer) {
-        BigInteger[] bigInts = new BigInteger[arrayLen];
-        for (int i = 0; i < arrayLen; i++) {
-            bigInts[i] = decodeBigIntElement(bigIntegerType, bb, unitBuffer);
+    private static void decodeLongs(LongType longType, ByteBuffer bb, long[] longs, int from, int to, byte[] unitBuffer, boolean check) {
+        for (int i = from; i < to; i++) {
+            if(check) {
+                longs[i] = decodeBigIntElement(longType, bb, unitBuffer).longValue();
+            } else {
+                UnitType.skipHighBytes(bb, Long.BYTES);
+                longs[i] = bb.getLong();
+            }
         }
+    }
+
+    private static BigInteger[] decodeBigIntegerArray(BigIntegerType bigIntegerType, ByteBuffer bb, int arrayLen, byte[] unitBuffer, boolean check) {
+        BigInteger[] bigInts = new BigInteger[arrayLen];
+        decodeBigIntegers(bigIntegerType, bb, bigInts, 0, arrayLen, unitBuffer, check);
         return bigInts;
     }
 
-    private static BigDecimal[] decodeBigDecimalArray(BigDecimalType bigDecimalType, ByteBuffer bb, int arrayLen, byte[] unitBuffer) {
+    private static void decodeBigIntegers(BigIntegerType bigIntegerType, ByteBuffer bb, BigInteger[] bigInts, int from, int to, byte[] unitBuffer, boolean check) {
+        for (int i = from; i < to; i++) {
+            bigInts[i] = decodeBigIntElement(check ? bigIntegerType : null, bb, unitBuffer);
+        }
+    }
+
+    private static BigDecimal[] decodeBigDecimalArray(BigDecimalType bigDecimalType, ByteBuffer bb, int arrayLen, byte[] unitBuffer, boolean check) {
         BigDecimal[] bigDecs = new BigDecimal[arrayLen];
+        decodeBigDecimals(bigDecimalType, bb, bigDecs, 0, arrayLen, unitBuffer, check);
+        return bigDecs;
+    }
+
+    private static void decodeBigDecimals(BigDecimalType bigDecimalType, ByteBuffer bb, BigDecimal[] bigDecs, int from, int to, byte[] unitBuffer, boolean check) {
         final int scale = bigDecimalType.scale;
-        for (int i = 0; i < arrayLen; i++) {
-            bigDecs[i] = new BigDecimal(decodeBigIntElement(bigDecimalType, bb, unitBuffer), scale);
+        for (int i = from; i < to; i++) {
+            bigDecs[i] = new BigDecimal(decodeBigIntElement(check ? bigDecimalType : null, bb, unitBuffer), scale);
         }
-        return bigDecs;
     }
 
+    /** @param type the type against which to validate the element, or null to skip validation */
     private static BigInteger decodeBigIntElement(UnitType<?> type, ByteBuffer bb, byte[] unitBuffer) {
         bb.get(unitBuffer);
         BigInteger bi = new BigInteger(unitBuffer);
-        type.validateBigInt(bi);
+        if(type != null) {
+            type.validateBigInt(bi);
+        }
         return bi;
     }
 
-    private Object[] decodeObjectArray(int len, ByteBuffer bb, byte[] unitBuffer) {
+    private Object[] decodeObjectArray(int len, ByteBuffer bb, byte[] unitBuffer, DecodeMode mode) {
         Object[] dest = (Object[]) Array.newInstance(elementType.clazz, len); // reflection ftw
         if(!this.dynamic || !elementType.dynamic) {
             for (int i = 0; i < len; i++) {
-                dest[i] = elementType.decode(bb, unitBuffer);
+                dest[i] = elementType.decode(bb, unitBuffer, mode);
             }
         } else {
-//            final int index = bb.position(); // *** save this value here if you want to support lenient mode below
             int[] offsets = new int[len];
             for (int i = 0; i < len; i++) {
                 offsets[i] = Encoding.OFFSET_TYPE.decode(bb, unitBuffer);
@@ -432,17 +684,38 @@ public final class ArrayType<E extends ABIType<?>, J> extends ABIType<J> {
             for (int i = 0; i < len; i++) {
                 if (offsets[i] > 0) {
                     /* OPERATES IN STRICT MODE; see https://github.com/ethereum/solidity/commit/3d1ca07e9b4b42355aa9be5db5c00048607986d1 */
-//                    if (bb.position() != index + offset) {
-//                        System.err.println(ArrayType.class.getName() + " setting " + bb.position() + " to " + (index + offset) + ", offset=" + offset);
-//                        bb.position(index + offset); // lenient
-//                    }
-                    dest[i] = elementType.decode(bb, unitBuffer);
+                    dest[i] = elementType.decode(bb, unitBuffer, mode);
                 }
             }
         }
         return dest;
     }
 
+    /**
+     * Decodes an array of dynamic elements by seeking to each element's offset, then leaves the buffer positioned after
+     * the furthest byte read. The heads are charged to the budget before anything is allocated.
+     */
+    Object[] decodeLenient(ByteBuffer bb, byte[] unitBuffer, LenientBudget budget) {
+        final int start = bb.position();
+        final int len = length == DYNAMIC_LENGTH
+                ? ARRAY_LENGTH_TYPE.decode(bb, unitBuffer)
+                : length;
+        final int index = bb.position();
+        budget.charge(index - start + (long) len * UNIT_LENGTH_BYTES);
+        final Object[] dest = (Object[]) Array.newInstance(elementType.clazz, len);
+        final int[] offsets = new int[len];
+        for (int i = 0; i < len; i++) {
+            offsets[i] = Encoding.OFFSET_TYPE.decode(bb, unitBuffer);
+        }
+        int end = bb.position();
+        for (int i = 0; i < len; i++) {
+            dest[i] = TupleType.decodeTail(elementType, index + offsets[i], bb, unitBuffer, budget);
+            end = Math.max(end, bb.position());
+        }
+        bb.position(end);
+        return dest;
+    }
+
     @Override
     public J parseArgument(String s) {
         throw new UnsupportedOperationException();
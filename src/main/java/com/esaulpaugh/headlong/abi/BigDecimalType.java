@@ -70,6 +70,12 @@ public final class BigDecimalType extends UnitType<BigDecimal> {
         return new BigDecimal(bi, scale);
     }
 
+    @Override
+    BigDecimal decodeUnchecked(ByteBuffer bb, byte[] unitBuffer) {
+        bb.get(unitBuffer);
+        return new BigDecimal(new BigInteger(unitBuffer), scale);
+    }
+
     @Override
     public BigDecimal parseArgument(String s) {
         BigDecimal bigDec = new BigDecimal(new BigInteger(s), scale);
@@ -58,6 +58,12 @@ public final class BigIntegerType extends UnitType<BigInteger> {
         return bi;
     }
 
+    @Override
+    BigInteger decodeUnchecked(ByteBuffer bb, byte[] unitBuffer) {
+        bb.get(unitBuffer);
+        return new BigInteger(unitBuffer);
+    }
+
     @Override
     public BigInteger parseArgument(String s) {
         BigInteger bigInt = new BigInteger(s);
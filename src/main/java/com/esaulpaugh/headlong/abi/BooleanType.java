@@ -69,6 +69,12 @@ public final class BooleanType extends UnitType<Boolean> {
         return decodeBoolean(bi.byteValue());
     }
 
+    @Override
+    Boolean decodeUnchecked(ByteBuffer bb, byte[] unitBuffer) {
+        skipHighBytes(bb, Byte.BYTES);
+        return decodeBoolean(bb.get());
+    }
+
     static Boolean decodeBoolean(byte b) {
         return b == Encoding.ZERO_BYTE ? Boolean.FALSE : Boolean.TRUE;
     }
@@ -59,6 +59,12 @@ public final class ByteType extends UnitType<Byte> {
         return bi.byteValue();
     }
 
+    @Override
+    Byte decodeUnchecked(ByteBuffer bb, byte[] unitBuffer) {
+        skipHighBytes(bb, Byte.BYTES);
+        return bb.get();
+    }
+
     @Override
     public Byte parseArgument(String s) {
         Byte b = Byte.parseByte(s);
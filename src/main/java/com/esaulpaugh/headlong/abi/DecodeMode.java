@@ -0,0 +1,39 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+/** How an ABI encoding is read. */
+public enum DecodeMode {
+
+    /**
+     * The default. Dynamic elements are read sequentially in canonical order (offset values are not followed) and every
+     * value is validated against its type.
+     */
+    STRICT,
+
+    /**
+     * Seeks to each dynamic element's offset, supporting non-canonical encodings in which tails are out of order, padded
+     * or shared. Values are validated. Because shared tails are decoded once per reference, decoding fails once it has
+     * read more than four times the length of the encoding.
+     */
+    LENIENT,
+
+    /**
+     * Like {@link #STRICT} but values are not validated: numbers are read from the low-order bytes of each unit without
+     * range or sign checks. For use with trusted sources only.
+     */
+    STRICT_UNCHECKED
+}
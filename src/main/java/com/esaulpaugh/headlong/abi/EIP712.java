@@ -0,0 +1,388 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import com.esaulpaugh.headlong.util.JsonUtils;
+import com.esaulpaugh.headlong.util.Strings;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.joemelsha.crypto.hash.Keccak;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_ARRAY;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_BOOLEAN;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_BYTE;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_INT;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_LONG;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_TUPLE;
+import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
+
+/**
+ * A set of EIP-712 struct types, for computing {@code encodeType}, {@code typeHash} and {@code hashStruct}. Each struct
+ * is backed by a {@link TupleType} whose elements are its members; struct values are {@link Tuple}s, arrays of structs
+ * are {@code Tuple[]} and all other member values are as in ABI encoding. Type hashes are computed once, up front, and
+ * members are fed straight into Keccak rather than into an intermediate encoding. Each thread reuses one set of digests
+ * and one scratch buffer across calls, and the most recent domain separator is cached.
+ */
+public final class EIP712 {
+
+    private static final String DOMAIN_TYPE = "EIP712Domain";
+
+    private static final ThreadLocal<Hasher> HASHER = ThreadLocal.withInitial(Hasher::new);
+
+    private static final class Struct {
+
+        final String name;
+        final String[] memberTypeStrings;
+        final TupleType tupleType;
+        final Struct[] memberStructs; // the struct at the bottom of each member type, if any
+        String encodedType;
+        byte[] typeHash;
+
+        Struct(String name, String[] memberTypeStrings, TupleType tupleType, Struct[] memberStructs) {
+            this.name = name;
+            this.memberTypeStrings = memberTypeStrings;
+            this.tupleType = tupleType;
+            this.memberStructs = memberStructs;
+        }
+    }
+
+    /** A domain and its separator, replaced as a unit. */
+    private static final class Domain {
+
+        final Tuple values;
+        final byte[] separator;
+
+        Domain(Tuple values, byte[] separator) {
+            this.values = values;
+            this.separator = separator;
+        }
+    }
+
+    private final Map<String, Struct> structs;
+    private volatile Domain lastDomain;
+
+    private EIP712(Map<String, Struct> structs) {
+        this.structs = structs;
+    }
+
+    /**
+     * Parses the {@code types} member of an EIP-712 typed data object, e.g.
+     * {@code {"Person":[{"name":"name","type":"string"},{"name":"wallet","type":"address"}]}}.
+     *
+     * @param typesJson the JSON object mapping struct names to member lists
+     * @return the struct types
+     * @throws IllegalArgumentException if a type is unrecognized or a struct refers to itself
+     */
+    public static EIP712 parse(String typesJson) {
+        final JsonObject types = JsonUtils.parseObject(typesJson);
+        final Map<String, JsonObject[]> definitions = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> e : types.entrySet()) {
+            final List<JsonObject> members = new ArrayList<>();
+            for (JsonElement m : e.getValue().getAsJsonArray()) {
+                members.add(m.getAsJsonObject());
+            }
+            definitions.put(e.getKey(), members.toArray(new JsonObject[0]));
+        }
+        final Map<String, Struct> structs = new HashMap<>();
+        for (String name : definitions.keySet()) {
+            resolve(name, definitions, structs, new ArrayList<>());
+        }
+        final Keccak keccak = new Keccak(256);
+        for (Struct s : structs.values()) {
+            s.encodedType = encodeType(s);
+            s.typeHash = keccak.digest(Strings.decode(s.encodedType, Strings.UTF_8));
+        }
+        return new EIP712(structs);
+    }
+
+    private static Struct resolve(String name, Map<String, JsonObject[]> definitions, Map<String, Struct> structs, List<String> path) {
+        final Struct existing = structs.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (path.contains(name)) {
+            throw new IllegalArgumentException("recursive struct: " + name);
+        }
+        path.add(name);
+        final JsonObject[] members = definitions.get(name);
+        final String[] typeStrings = new String[members.length];
+        final ABIType<?>[] types = new ABIType<?>[members.length];
+        final Struct[] memberStructs = new Struct[members.length];
+        for (int i = 0; i < members.length; i++) {
+            final String memberName = JsonUtils.getString(members[i], "name");
+            final String type = JsonUtils.getString(members[i], "type");
+            if (memberName == null || type == null) {
+                throw new IllegalArgumentException("member of " + name + " missing name or type");
+            }
+            typeStrings[i] = type;
+            final int arrayStart = type.indexOf('[');
+            final String base = arrayStart < 0 ? type : type.substring(0, arrayStart);
+            if (definitions.containsKey(base)) {
+                memberStructs[i] = resolve(base, definitions, structs, path);
+                types[i] = arrayStart < 0
+                        ? TupleType.wrap(memberStructs[i].tupleType.elementTypes).setName(memberName)
+                        : TypeFactory.createFromBase(memberStructs[i].tupleType, type.substring(arrayStart), memberName);
+            } else {
+                types[i] = TypeFactory.create(type, memberName);
+            }
+        }
+        path.remove(path.size() - 1);
+        final Struct struct = new Struct(name, typeStrings, TupleType.wrap(types), memberStructs);
+        structs.put(name, struct);
+        return struct;
+    }
+
+    /** The primary type's own encoding followed by those of all the struct types it references, sorted by name. */
+    private static String encodeType(Struct primary) {
+        final TreeSet<String> dependencies = new TreeSet<>();
+        final Map<String, Struct> byName = new HashMap<>();
+        collectDependencies(primary, dependencies, byName);
+        dependencies.remove(primary.name);
+        final StringBuilder sb = new StringBuilder();
+        appendStruct(primary, sb);
+        for (String dep : dependencies) {
+            appendStruct(byName.get(dep), sb);
+        }
+        return sb.toString();
+    }
+
+    private static void collectDependencies(Struct s, TreeSet<String> names, Map<String, Struct> byName) {
+        if (names.add(s.name)) {
+            byName.put(s.name, s);
+            for (Struct m : s.memberStructs) {
+                if (m != null) {
+                    collectDependencies(m, names, byName);
+                }
+            }
+        }
+    }
+
+    private static void appendStruct(Struct s, StringBuilder sb) {
+        sb.append(s.name).append('(');
+        final ABIType<?>[] members = s.tupleType.elementTypes;
+        for (int i = 0; i < members.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(s.memberTypeStrings[i]).append(' ').append(members[i].getName());
+        }
+        sb.append(')');
+    }
+
+    private Struct get(String structName) {
+        final Struct s = structs.get(structName);
+        if (s == null) {
+            throw new IllegalArgumentException("unknown struct: " + structName);
+        }
+        return s;
+    }
+
+    /**
+     * @param structName the name of the struct
+     * @return the types of the struct's members, whose element names are the member names
+     */
+    public TupleType getTupleType(String structName) {
+        return get(structName).tupleType;
+    }
+
+    public String encodeType(String structName) {
+        return get(structName).encodedType;
+    }
+
+    public byte[] typeHash(String structName) {
+        return Arrays.copyOf(get(structName).typeHash, UNIT_LENGTH_BYTES);
+    }
+
+    /**
+     * Validates {@code values} and returns {@code keccak256(typeHash ‖ encodeData(values))}.
+     *
+     * @param structName the name of the struct
+     * @param values     the member values, in declaration order
+     * @return the 32-byte struct hash
+     */
+    public byte[] hashStruct(String structName, Tuple values) {
+        final Struct s = get(structName);
+        s.tupleType.validate(values);
+        final Hasher hasher = Hasher.get();
+        hasher.hashStruct(s, values, 0);
+        return hasher.result();
+    }
+
+    /**
+     * @param domain the {@code EIP712Domain} member values
+     * @return {@code hashStruct} of the domain, which is cached for the next call with an equal domain
+     */
+    public byte[] domainSeparator(Tuple domain) {
+        return domain(domain).separator.clone();
+    }
+
+    private Domain domain(Tuple values) {
+        Domain d = lastDomain;
+        if (d == null || !d.values.equals(values)) {
+            lastDomain = d = new Domain(values, hashStruct(DOMAIN_TYPE, values));
+        }
+        return d;
+    }
+
+    /**
+     * Returns the EIP-712 signing hash {@code keccak256("\x19\x01" ‖ domainSeparator ‖ hashStruct(message))}, where
+     * {@code domainSeparator} is {@code hashStruct} of the {@code EIP712Domain} struct, which must be among these types.
+     *
+     * @param domain      the {@code EIP712Domain} member values
+     * @param primaryType the name of the message's struct
+     * @param message     the message's member values
+     * @return the 32-byte hash to be signed
+     */
+    public byte[] hashTypedData(Tuple domain, String primaryType, Tuple message) {
+        return hashTypedData(domain(domain).separator, primaryType, message);
+    }
+
+    /**
+     * @param domainSeparator the 32-byte domain separator, e.g. from {@link #domainSeparator(Tuple)}
+     * @param primaryType     the name of the message's struct
+     * @param message         the message's member values
+     * @return the 32-byte hash to be signed
+     */
+    public byte[] hashTypedData(byte[] domainSeparator, String primaryType, Tuple message) {
+        if (domainSeparator.length != UNIT_LENGTH_BYTES) {
+            throw new IllegalArgumentException("domain separator length must be " + UNIT_LENGTH_BYTES);
+        }
+        final Struct s = get(primaryType);
+        s.tupleType.validate(message);
+        final Hasher hasher = Hasher.get();
+        hasher.hashStruct(s, message, 1);
+        final Keccak k = hasher.digest(0);
+        k.update((byte) 0x19);
+        k.update((byte) 0x01);
+        k.update(domainSeparator);
+        k.update((ByteBuffer) hasher.scratch.flip());
+        hasher.finish(k);
+        return hasher.result();
+    }
+
+    /**
+     * Per-thread state. One Keccak per nesting depth is reused across siblings and calls, and atomic members are encoded
+     * into a single 32-byte scratch buffer.
+     */
+    private static final class Hasher {
+
+        private final List<Keccak> digests = new ArrayList<>();
+        private final ByteBuffer scratch = ByteBuffer.allocate(UNIT_LENGTH_BYTES);
+        private boolean dirty; // a previous call failed partway, possibly leaving digests mid-hash
+
+        /** Returns this thread's hasher, ready for a new call. */
+        static Hasher get() {
+            final Hasher h = HASHER.get();
+            if (h.dirty) {
+                for (Keccak k : h.digests) {
+                    k.reset();
+                }
+                h.scratch.order(ByteOrder.BIG_ENDIAN);
+            }
+            h.dirty = true;
+            return h;
+        }
+
+        /** Copies out the hash left in the scratch buffer and marks the call complete. */
+        byte[] result() {
+            dirty = false;
+            return Arrays.copyOf(scratch.array(), UNIT_LENGTH_BYTES);
+        }
+
+        Keccak digest(int depth) {
+            while (depth >= digests.size()) {
+                digests.add(new Keccak(256));
+            }
+            return digests.get(depth);
+        }
+
+        /** Leaves the 32-byte hash of the struct in the scratch buffer. */
+        void hashStruct(Struct s, Tuple values, int depth) {
+            final Keccak k = digest(depth);
+            k.update(s.typeHash);
+            final ABIType<?>[] types = s.tupleType.elementTypes;
+            for (int i = 0; i < types.length; i++) {
+                encodeData(types[i], s.memberStructs[i], values.elements[i], depth + 1);
+                k.update((ByteBuffer) scratch.flip());
+            }
+            finish(k);
+        }
+
+        /** Leaves the 32-byte encoding of the value in the scratch buffer. */
+        private void encodeData(ABIType<?> type, Struct struct, Object value, int depth) {
+            scratch.clear();
+            switch (type.typeCode()) {
+            case TYPE_CODE_TUPLE:
+                hashStruct(struct, (Tuple) value, depth);
+                return;
+            case TYPE_CODE_ARRAY:
+                final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+                if (arrayType.elementType.typeCode() != TYPE_CODE_BYTE) {
+                    hashArray(arrayType, struct, value, depth);
+                    return;
+                }
+                if (type.dynamic) { // bytes or string
+                    final Keccak k = digest(depth);
+                    k.update(!arrayType.isString ? (byte[]) value : Strings.decode((String) value, Strings.UTF_8));
+                    finish(k);
+                    return;
+                }
+                /* bytesN; fall through */
+            default:
+                type.encodeHead(value, scratch, 0);
+            }
+        }
+
+        /** Leaves {@code keccak256} of the concatenated element encodings in the scratch buffer. */
+        private void hashArray(ArrayType<?, ?> arrayType, Struct struct, Object value, int depth) {
+            final Keccak k = digest(depth);
+            final ABIType<?> elementType = arrayType.elementType;
+            switch (elementType.typeCode()) {
+            case TYPE_CODE_BOOLEAN: for (boolean e : (boolean[]) value) updateUnit(k, e ? 1L : 0L); break;
+            case TYPE_CODE_INT: for (int e : (int[]) value) updateUnit(k, e); break;
+            case TYPE_CODE_LONG: for (long e : (long[]) value) updateUnit(k, e); break;
+            default:
+                for (Object e : (Object[]) value) {
+                    encodeData(elementType, struct, e, depth + 1);
+                    k.update((ByteBuffer) scratch.flip());
+                }
+            }
+            finish(k);
+        }
+
+        private void updateUnit(Keccak k, long val) {
+            scratch.clear();
+            Encoding.insertInt(val, scratch);
+            k.update((ByteBuffer) scratch.flip());
+        }
+
+        void finish(Keccak k) {
+            scratch.clear();
+            k.digest(scratch);
+            scratch.order(ByteOrder.BIG_ENDIAN); // Keccak leaves the buffer little-endian
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, least-recently-used cache of encoded calls, keyed by function and arguments. Arguments are compared with
+ * {@link Tuple#equals(Object)}, so a cached {@link Tuple} (including any arrays it contains) must not be modified. Safe
+ * for use by multiple threads.
+ */
+public final class EncodingCache {
+
+    private static final class Key {
+
+        final Function function;
+        final Tuple args;
+        final int hash;
+
+        Key(Function function, Tuple args) {
+            this.function = function;
+            this.args = args;
+            this.hash = 31 * function.hashCode() + args.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash && function.equals(other.function) && args.equals(other.args);
+        }
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, byte[]> map;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EncodingCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.map = new LinkedHashMap<Key, byte[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                if (size() > EncodingCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the encoded call, encoding and caching it on a miss.
+     *
+     * @param function the function
+     * @param args     the arguments, which must not be modified afterward
+     * @return a read-only buffer, positioned at zero, containing the encoded call
+     * @see Function#encodeCall(Tuple)
+     */
+    public ByteBuffer encodeCall(Function function, Tuple args) {
+        final Key key = new Key(function, args);
+        byte[] encoded;
+        synchronized (map) {
+            encoded = map.get(key);
+        }
+        if (encoded != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            encoded = function.encodeCall(args).array();
+            synchronized (map) {
+                map.put(key, encoded);
+            }
+        }
+        return ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+    }
+
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EncodingCache{size=" + size() + ", maxEntries=" + maxEntries
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + '}';
+    }
+}
@@ -16,19 +16,27 @@
 package com.esaulpaugh.headlong.abi;
 
 import com.esaulpaugh.headlong.abi.util.WrappedKeccak;
+import com.esaulpaugh.headlong.util.BufferAllocator;
 import com.esaulpaugh.headlong.util.Integers;
 import com.esaulpaugh.headlong.util.JsonUtils;
 import com.esaulpaugh.headlong.util.Strings;
 import com.google.gson.JsonObject;
 import com.joemelsha.crypto.hash.Keccak;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.DigestException;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
@@ -118,6 +126,21 @@ public final class Function implements ABIObject, Serializable {
         generateSelector(messageDigest);
     }
 
+    /** For restoring a function whose selector has already been computed, e.g. from an {@link ABISnapshot}. */
+    Function(Type type, String name, TupleType inputTypes, TupleType outputTypes, String stateMutability, String hashAlgorithm, byte[] selector) {
+        this.type = Objects.requireNonNull(type);
+        this.name = name != null ? Utils.validateChars(ILLEGAL_NAME_CHAR, name) : null;
+        this.inputTypes = Objects.requireNonNull(inputTypes);
+        this.outputTypes = Objects.requireNonNull(outputTypes);
+        this.stateMutability = stateMutability;
+        this.hashAlgorithm = Objects.requireNonNull(hashAlgorithm);
+        validateFunction();
+        if(selector.length != SELECTOR_LEN) {
+            throw new IllegalArgumentException("expected selector length " + SELECTOR_LEN + ", actual: " + selector.length);
+        }
+        System.arraycopy(selector, 0, this.selector, 0, SELECTOR_LEN);
+    }
+
     public Type getType() {
         return type;
     }
@@ -219,6 +242,22 @@ public final class Function implements ABIObject, Serializable {
         return dest;
     }
 
+    /**
+     * Encodes a call to this function into a buffer from {@code allocator}, which the caller may release once done with it.
+     *
+     * @param args      the arguments
+     * @param allocator the source of the buffer
+     * @return the encoded call, between the buffer's position (zero) and its limit
+     * @see TupleType#encode(Tuple, BufferAllocator)
+     */
+    public ByteBuffer encodeCall(Tuple args, BufferAllocator allocator) {
+        ByteBuffer dest = allocator.allocate(measureCallLength(args)); // validates
+        dest.put(selector);
+        inputTypes.encodeTail(args, dest);
+        dest.flip();
+        return dest;
+    }
+
     public Function encodeCall(Tuple args, ByteBuffer dest) {
         inputTypes.validate(args);
         dest.put(selector);
@@ -226,11 +265,75 @@ public final class Function implements ABIObject, Serializable {
         return this;
     }
 
+    /**
+     * Validates {@code args} and writes the encoded call to the channel in order, without materializing the whole
+     * encoding.
+     *
+     * @param args the arguments
+     * @param out  the destination
+     * @return the number of bytes written
+     * @throws IOException  if an I/O error occurs
+     * @see TupleType#encode(Tuple, WritableByteChannel)
+     */
+    public int encodeCall(Tuple args, WritableByteChannel out) throws IOException {
+        inputTypes.validate(args);
+        return encodeCall(args, out, StreamingEncoder.DEFAULT_SCRATCH_LEN);
+    }
+
+    public int encodeCall(Tuple args, OutputStream out) throws IOException {
+        return encodeCall(args, Channels.newChannel(out));
+    }
+
+    int encodeCall(Tuple args, WritableByteChannel out, int scratchLen) throws IOException {
+        StreamingEncoder encoder = new StreamingEncoder(out, scratchLen);
+        encoder.put(selector);
+        encoder.encode(inputTypes, args);
+        return encoder.finish();
+    }
+
+    /**
+     * Encodes a call to this function without validating the arguments.
+     *
+     * @param args the trusted arguments
+     * @return the encoded call
+     * @see TupleType#encodeTrusted(Tuple)
+     */
+    public ByteBuffer encodeCallTrusted(Tuple args) {
+        ByteBuffer dest = ByteBuffer.wrap(new byte[SELECTOR_LEN + inputTypes.byteLength(args)]);
+        encodeCallTrusted(args, dest);
+        return dest;
+    }
+
+    public Function encodeCallTrusted(Tuple args, ByteBuffer dest) {
+        dest.put(selector);
+        inputTypes.encodeTail(args, dest);
+        return this;
+    }
+
+    /**
+     * Encodes a call to this function, using the given pool to encode the elements of large array arguments concurrently.
+     *
+     * @param args the arguments
+     * @param pool the pool on which to run the encoding tasks
+     * @return the encoded call
+     * @see TupleType#encode(Tuple, ForkJoinPool)
+     */
+    public ByteBuffer encodeCall(Tuple args, ForkJoinPool pool) {
+        ByteBuffer dest = ByteBuffer.wrap(new byte[measureCallLength(args)]); // validates
+        dest.put(selector);
+        inputTypes.encodeTail(args, dest, pool);
+        return dest;
+    }
+
     public Tuple decodeCall(byte[] array) {
         return decodeCall(ByteBuffer.wrap(array));
     }
 
     public Tuple decodeCall(ByteBuffer abiBuffer) {
+        return decodeCall(abiBuffer, DecodeMode.STRICT);
+    }
+
+    public Tuple decodeCall(ByteBuffer abiBuffer, DecodeMode mode) {
         final byte[] unitBuffer = ABIType.newUnitBuffer();
         abiBuffer.get(unitBuffer, 0, SELECTOR_LEN);
         for(int i = 0; i < SELECTOR_LEN; i++) {
@@ -239,7 +342,11 @@ public final class Function implements ABIObject, Serializable {
                         + ", found: " + Strings.encode(unitBuffer, 0, SELECTOR_LEN, Strings.HEX));
             }
         }
-        return inputTypes.decode(abiBuffer, unitBuffer);
+        return inputTypes.decode(abiBuffer, unitBuffer, mode);
+    }
+
+    public Tuple decodeReturn(byte[] returnVals, DecodeMode mode) {
+        return outputTypes.decode(returnVals, mode);
     }
 
     public Tuple decodeReturn(byte[] returnVals) {
@@ -250,6 +357,50 @@ public final class Function implements ABIObject, Serializable {
         return outputTypes.decode(returnVals);
     }
 
+    public Tuple decodeReturn(ByteBuffer returnVals, DecodeMode mode) {
+        return outputTypes.decode(returnVals, mode);
+    }
+
+    /**
+     * @param returnVals the source of the encoded return values
+     * @return the decoded return values
+     * @throws IOException  if an I/O error occurs
+     * @see TupleType#decode(ReadableByteChannel)
+     */
+    public Tuple decodeReturn(ReadableByteChannel returnVals) throws IOException {
+        return outputTypes.decode(returnVals);
+    }
+
+    public Tuple decodeReturn(InputStream returnVals) throws IOException {
+        return outputTypes.decode(returnVals);
+    }
+
+    /**
+     * @param returnVals      the source of the encoded return values
+     * @param streamThreshold the length in bytes from which {@code bytes} and {@code string} values are streamed
+     * @param handler         the recipient of the streamed values
+     * @return the decoded return values, with streamed values null
+     * @throws IOException  if an I/O error occurs
+     * @see TupleType#decode(ReadableByteChannel, int, StreamedBytesHandler)
+     */
+    public Tuple decodeReturn(ReadableByteChannel returnVals, int streamThreshold, StreamedBytesHandler handler) throws IOException {
+        return outputTypes.decode(returnVals, streamThreshold, handler);
+    }
+
+    public Tuple decodeReturn(InputStream returnVals, int streamThreshold, StreamedBytesHandler handler) throws IOException {
+        return outputTypes.decode(returnVals, streamThreshold, handler);
+    }
+
+    /**
+     * @param returnVals the encoded return values
+     * @param pool       the pool on which to decode the elements of large arrays concurrently
+     * @return the decoded return values
+     * @see TupleType#decode(ByteBuffer, ForkJoinPool)
+     */
+    public Tuple decodeReturn(ByteBuffer returnVals, ForkJoinPool pool) {
+        return outputTypes.decode(returnVals, pool);
+    }
+
     @Override
     public int hashCode() {
         return 31 * Objects.hash(type, name, inputTypes, outputTypes, hashAlgorithm, stateMutability)
@@ -44,6 +44,12 @@ public final class IntType extends UnitType<Integer> {
         return bi.intValue();
     }
 
+    @Override
+    Integer decodeUnchecked(ByteBuffer bb, byte[] unitBuffer) {
+        skipHighBytes(bb, Integer.BYTES);
+        return bb.getInt();
+    }
+
     @Override
     public Integer parseArgument(String s) {
         Integer in = Integer.parseInt(s);
@@ -0,0 +1,39 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+/**
+ * Bounds the work of a {@link DecodeMode#LENIENT} decoding. Each container is charged for its heads and each other tail
+ * for its full length, so a canonical encoding is charged at most its own length; shared tails are charged every time
+ * they are decoded.
+ */
+final class LenientBudget {
+
+    static final int AMPLIFICATION_LIMIT = 4;
+
+    private long remaining;
+
+    LenientBudget(int encodingLen) {
+        this.remaining = (long) encodingLen * AMPLIFICATION_LIMIT;
+    }
+
+    void charge(long len) {
+        remaining -= len;
+        if(remaining < 0) {
+            throw new IllegalArgumentException("lenient decoding exceeds " + AMPLIFICATION_LIMIT + "x the length of the encoding");
+        }
+    }
+}
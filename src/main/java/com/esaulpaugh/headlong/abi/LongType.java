@@ -44,6 +44,12 @@ public final class LongType extends UnitType<Long> {
         return bi.longValue();
     }
 
+    @Override
+    Long decodeUnchecked(ByteBuffer bb, byte[] unitBuffer) {
+        skipHighBytes(bb, Long.BYTES);
+        return bb.getLong();
+    }
+
     @Override
     public Long parseArgument(String s) {
         Long lo = Long.parseLong(s);
@@ -61,6 +61,107 @@ public final class PackedDecoder {
         throw new IllegalArgumentException("multiple dynamic elements");
     }
 
+    /**
+     * Decodes a packed encoding containing any number of dynamic elements in a single forward pass, given the length
+     * of each dynamic-length array (including {@code bytes} and {@code string}, whose lengths are in bytes) in the order
+     * in which the arrays appear in the encoding.
+     *
+     * @param tupleType   the types of the encoded values
+     * @param buffer      the packed encoding
+     * @param lengthHints the lengths of the dynamic-length arrays, in encoding order
+     * @return the decoded values
+     * @throws IllegalArgumentException if the hints do not describe the encoding exactly
+     */
+    public static Tuple decode(TupleType tupleType, byte[] buffer, int[] lengthHints) {
+        return decode(tupleType, buffer, 0, buffer.length, lengthHints);
+    }
+
+    public static Tuple decode(TupleType tupleType, byte[] buffer, int from, int to, int[] lengthHints) {
+        final Cursor cursor = new Cursor(from, to, lengthHints);
+        final Tuple tuple = decodeTupleForward(tupleType, buffer, cursor);
+        if (cursor.hint != lengthHints.length) {
+            throw new IllegalArgumentException("unused length hints: " + (lengthHints.length - cursor.hint) + " remaining");
+        }
+        if (cursor.idx != to) {
+            throw new IllegalArgumentException("unconsumed bytes: " + (to - cursor.idx) + " remaining");
+        }
+        tupleType.validate(tuple);
+        return tuple;
+    }
+
+    private static final class Cursor {
+
+        private final int to;
+        private final int[] lengthHints;
+        private int idx;
+        private int hint = 0;
+
+        private Cursor(int from, int to, int[] lengthHints) {
+            this.idx = from;
+            this.to = to;
+            this.lengthHints = lengthHints;
+        }
+
+        private int nextLength() {
+            if (hint == lengthHints.length) {
+                throw new IllegalArgumentException("not enough length hints: " + lengthHints.length);
+            }
+            final int len = lengthHints[hint++];
+            if (len < 0) {
+                throw new IllegalArgumentException("negative length hint: " + len);
+            }
+            return len;
+        }
+
+        private int advance(int byteLen) {
+            if (byteLen > to - idx) {
+                throw new IllegalArgumentException("encoding too short: " + byteLen + " bytes needed, " + (to - idx) + " remaining");
+            }
+            final int start = idx;
+            idx += byteLen;
+            return start;
+        }
+    }
+
+    private static Tuple decodeTupleForward(TupleType tupleType, byte[] buffer, Cursor cursor) {
+        final ABIType<?>[] elementTypes = tupleType.elementTypes;
+        final Object[] elements = new Object[elementTypes.length];
+        for (int i = 0; i < elementTypes.length; i++) {
+            decodeForward(elementTypes[i], buffer, cursor, elements, i);
+        }
+        return new Tuple(elements);
+    }
+
+    private static void decodeForward(ABIType<?> type, byte[] buffer, Cursor cursor, Object[] dest, int destIdx) {
+        switch (type.typeCode()) {
+        case TYPE_CODE_ARRAY: dest[destIdx] = decodeArrayForward((ArrayType<? extends ABIType<?>, ?>) type, buffer, cursor); return;
+        case TYPE_CODE_TUPLE: dest[destIdx] = decodeTupleForward((TupleType) type, buffer, cursor); return;
+        default: decode(type, buffer, cursor.advance(type.byteLengthPacked(null)), cursor.to, dest, destIdx);
+        }
+    }
+
+    private static Object decodeArrayForward(ArrayType<? extends ABIType<?>, ?> arrayType, byte[] buffer, Cursor cursor) {
+        final ABIType<?> elementType = arrayType.elementType;
+        final int arrayLen = arrayType.length == DYNAMIC_LENGTH ? cursor.nextLength() : arrayType.length;
+        switch (elementType.typeCode()) {
+        case TYPE_CODE_ARRAY:
+        case TYPE_CODE_TUPLE:
+            final Object[] objects = (Object[]) Array.newInstance(elementType.clazz, arrayLen);
+            for (int i = 0; i < arrayLen; i++) {
+                decodeForward(elementType, buffer, cursor, objects, i);
+            }
+            return objects;
+        default:
+            final int elementByteLen = elementType.byteLengthPacked(null);
+            if (arrayLen > (cursor.to - cursor.idx) / Math.max(1, elementByteLen)) {
+                throw new IllegalArgumentException("encoding too short for array of length " + arrayLen);
+            }
+            final Object[] holder = new Object[1];
+            decodeArray(arrayType, buffer, cursor.advance(arrayLen * elementByteLen), cursor.idx, holder, 0, arrayLen);
+            return holder[0];
+        }
+    }
+
     private static int countDynamics(TupleType tupleType) {
         int numDynamic = 0;
         for (ABIType<?> e : tupleType) {
@@ -185,8 +286,7 @@ public final class PackedDecoder {
     }
 
     private static int decodeArray(ArrayType<? extends ABIType<?>, ?> arrayType, byte[] buffer, int idx, int end, Object[] dest, int destIdx) {
-        final ABIType<?> elementType = arrayType.elementType;
-        final int elementByteLen = elementType.byteLengthPacked(null);
+        final int elementByteLen = arrayType.elementType.byteLengthPacked(null);
         final int arrayLen;
         if(arrayType.length == DYNAMIC_LENGTH) {
             if (elementByteLen == 0) {
@@ -196,6 +296,12 @@ public final class PackedDecoder {
         } else {
             arrayLen = arrayType.length;
         }
+        return decodeArray(arrayType, buffer, idx, end, dest, destIdx, arrayLen);
+    }
+
+    private static int decodeArray(ArrayType<? extends ABIType<?>, ?> arrayType, byte[] buffer, int idx, int end, Object[] dest, int destIdx, int arrayLen) {
+        final ABIType<?> elementType = arrayType.elementType;
+        final int elementByteLen = elementType.byteLengthPacked(null);
         final Object array;
         switch (elementType.typeCode()) {
         case TYPE_CODE_BOOLEAN: array = decodeBooleanArray(arrayLen, buffer, idx); break;
@@ -19,9 +19,11 @@ import com.esaulpaugh.headlong.abi.util.BizarroIntegers;
 import com.esaulpaugh.headlong.util.Integers;
 import com.esaulpaugh.headlong.util.Strings;
 
+import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 
 import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_ARRAY;
 import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_BIG_DECIMAL;
@@ -73,6 +75,57 @@ final class PackedEncoder {
         }
     }
 
+    static final int HASH_SCRATCH_LEN = 256;
+
+    /**
+     * Feeds the packed encoding of {@code tuple} into {@code digest} through the scratch buffer, flushing whenever the next
+     * value would not fit. Values too large for the scratch buffer are fed piecewise and byte arrays are fed directly.
+     */
+    static void hashTuple(TupleType tupleType, Tuple tuple, ByteBuffer scratch, MessageDigest digest) {
+        for (int i = 0; i < tupleType.elementTypes.length; i++) {
+            hash(tupleType.elementTypes[i], tuple.elements[i], scratch, digest);
+        }
+    }
+
+    static void flush(ByteBuffer scratch, MessageDigest digest) {
+        scratch.flip();
+        digest.update(scratch);
+        scratch.clear();
+    }
+
+    private static void hash(ABIType<?> type, Object value, ByteBuffer scratch, MessageDigest digest) {
+        final int len = type.byteLengthPacked(type.dynamic ? value : null);
+        if(len > scratch.remaining()) {
+            flush(scratch, digest);
+            if(len > scratch.capacity()) {
+                switch (type.typeCode()) {
+                case TYPE_CODE_ARRAY: hashArray((ArrayType<? extends ABIType<?>, ?>) type, value, scratch, digest); return;
+                case TYPE_CODE_TUPLE: hashTuple((TupleType) type, (Tuple) value, scratch, digest); return;
+                default: throw new Error();
+                }
+            }
+        }
+        encode(type, value, scratch);
+    }
+
+    private static void hashArray(ArrayType<? extends ABIType<?>, ?> arrayType, Object value, ByteBuffer scratch, MessageDigest digest) {
+        final ABIType<?> elementType = arrayType.elementType;
+        switch (elementType.typeCode()) {
+        case TYPE_CODE_BYTE: digest.update(!arrayType.isString ? (byte[]) value : Strings.decode((String) value, Strings.UTF_8)); return;
+        case TYPE_CODE_ARRAY:
+        case TYPE_CODE_TUPLE:
+            for(Object e : (Object[]) value) {
+                hash(elementType, e, scratch, digest);
+            }
+            return;
+        default:
+            final int len = Array.getLength(value);
+            for (int i = 0; i < len; i++) {
+                hash(elementType, Array.get(value, i), scratch, digest);
+            }
+        }
+    }
+// ---------------------------------------------------------------------------------------------------------------------
     private static void encodeBooleans(boolean[] arr, ByteBuffer dest) {
         for (boolean bool : arr) {
             encodeBoolean(bool, dest);
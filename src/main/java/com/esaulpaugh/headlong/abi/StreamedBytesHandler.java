@@ -0,0 +1,39 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Receives the contents of large {@code bytes} and {@code string} values as they are read from a channel by
+ * {@link TupleType#decode(java.nio.channels.ReadableByteChannel, int, StreamedBytesHandler)}, so that they need never be
+ * held in memory whole. Values are handed over in the order in which they appear in the encoding, which is the order in
+ * which their (null) places in the result are reached by a depth-first walk.
+ */
+public interface StreamedBytesHandler {
+
+    /**
+     * Consumes as much of a value as wanted. Bytes left unread when this method returns are skipped.
+     *
+     * @param type     the type of the value, either {@code bytes} or {@code string}
+     * @param length   the length of the value in bytes (for a {@code string}, of its UTF-8 encoding)
+     * @param contents the value's bytes, read straight from the channel; valid only until this method returns. Closing
+     *                 it does not close the channel
+     * @throws IOException if an I/O error occurs
+     */
+    void handle(ArrayType<ByteType, ?> type, int length, InputStream contents) throws IOException;
+}
@@ -0,0 +1,342 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import com.esaulpaugh.headlong.util.Integers;
+import com.esaulpaugh.headlong.util.Strings;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_ARRAY;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_BYTE;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_TUPLE;
+import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
+
+/**
+ * Decodes (in strict mode) from a channel, reading through a fixed-size window only as far as each value requires. Any
+ * value whose encoding fits in the window is decoded there as usual; larger tuples and arrays are decoded piecewise and
+ * the contents of large byte arrays are read straight into the result. Given a {@link StreamedBytesHandler}, dynamic
+ * byte arrays of at least the threshold length are instead passed to it as streams and left null in the result.
+ */
+final class StreamingDecoder {
+
+    static final int DEFAULT_WINDOW_LEN = 8192;
+
+    private final ReadableByteChannel in;
+    private final ByteBuffer window;
+    private final byte[] unitBuffer = ABIType.newUnitBuffer();
+    private final int streamThreshold;
+    private final StreamedBytesHandler handler;
+
+    StreamingDecoder(ReadableByteChannel in, int windowLen) {
+        this(in, windowLen, Integer.MAX_VALUE, null);
+    }
+
+    StreamingDecoder(ReadableByteChannel in, int windowLen, int streamThreshold, StreamedBytesHandler handler) {
+        if(windowLen < UNIT_LENGTH_BYTES) {
+            throw new IllegalArgumentException("window too small: " + windowLen + " < " + UNIT_LENGTH_BYTES);
+        }
+        if(streamThreshold < 0) {
+            throw new IllegalArgumentException("negative stream threshold: " + streamThreshold);
+        }
+        this.in = in;
+        this.streamThreshold = streamThreshold;
+        this.handler = handler;
+        this.window = ByteBuffer.allocate(windowLen);
+        this.window.flip(); // empty, in read mode
+    }
+
+    /**
+     * Reads {@code len} bytes. The destination starts at most a window long and doubles only as data arrives, so a
+     * declared length that the channel cannot back fails with {@link EOFException} before much is allocated.
+     */
+    byte[] read(int len) throws IOException {
+        byte[] out = new byte[Math.min(len, window.capacity())];
+        int n = 0;
+        while (true) {
+            readFully(out, n);
+            if(out.length == len) {
+                return out;
+            }
+            n = out.length;
+            out = Arrays.copyOf(out, grow(n, len));
+        }
+    }
+
+    /** @return the next capacity for an array of {@code capacity} elements that must eventually hold {@code len} */
+    private static int grow(int capacity, int len) {
+        return (int) Math.min(len, Math.max(capacity * 2L, 1L));
+    }
+
+    /** @throws IllegalArgumentException if any bytes remain in the channel */
+    void finish() throws IOException {
+        if(window.hasRemaining() || fill() > 0) {
+            throw new IllegalArgumentException("unconsumed bytes remaining");
+        }
+    }
+
+    Object decode(ABIType<?> type) throws IOException {
+        if(!type.dynamic) {
+            final int len = staticByteLength(type);
+            if(len <= window.capacity()) {
+                require(len);
+                return type.decode(window, unitBuffer);
+            }
+        }
+        switch (type.typeCode()) {
+        case TYPE_CODE_TUPLE: return decodeTuple((TupleType) type);
+        case TYPE_CODE_ARRAY: return decodeArray((ArrayType<?, ?>) type);
+        default: throw new Error(); // unit types always fit
+        }
+    }
+
+    private Tuple decodeTuple(TupleType tupleType) throws IOException {
+        final ABIType<?>[] types = tupleType.elementTypes;
+        final Object[] elements = new Object[types.length];
+        final int[] offsets = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if(!types[i].dynamic) {
+                elements[i] = decode(types[i]);
+            } else {
+                offsets[i] = (Integer) decode(Encoding.OFFSET_TYPE);
+            }
+        }
+        for (int i = 0; i < types.length; i++) {
+            if(offsets[i] > 0) {
+                elements[i] = decode(types[i]);
+            }
+        }
+        return new Tuple(elements);
+    }
+
+    private Object decodeArray(ArrayType<?, ?> arrayType) throws IOException {
+        final ABIType<?> elementType = arrayType.elementType;
+        final int elementTypeCode = elementType.typeCode();
+        final boolean dynamicLen = arrayType.length == ArrayType.DYNAMIC_LENGTH;
+        if(dynamicLen && elementTypeCode != TYPE_CODE_ARRAY && elementTypeCode != TYPE_CODE_TUPLE) {
+            require(UNIT_LENGTH_BYTES);
+            final int peekedLen = window.getInt(window.position() + UNIT_LENGTH_BYTES - Integer.BYTES);
+            if(peekedLen >= 0 && peekedLen <= (window.capacity() - UNIT_LENGTH_BYTES) / UNIT_LENGTH_BYTES // fits in window
+                    && !streams(arrayType, peekedLen)) {
+                final int byteLen = elementTypeCode == TYPE_CODE_BYTE
+                        ? Integers.roundLengthUp(peekedLen, UNIT_LENGTH_BYTES)
+                        : peekedLen * UNIT_LENGTH_BYTES;
+                require(UNIT_LENGTH_BYTES + byteLen);
+                return arrayType.decode(window, unitBuffer);
+            }
+        }
+        final int len = dynamicLen ? (Integer) decode(Encoding.OFFSET_TYPE) : arrayType.length;
+        switch (elementTypeCode) {
+        case TYPE_CODE_BYTE: {
+            if(streams(arrayType, len)) {
+                stream(arrayType, len);
+                skip(Integers.roundLengthUp(len, UNIT_LENGTH_BYTES) - len);
+                return null;
+            }
+            final byte[] bytes = read(len);
+            skip(Integers.roundLengthUp(len, UNIT_LENGTH_BYTES) - len);
+            return !arrayType.isString ? bytes : Strings.encode(bytes, Strings.UTF_8);
+        }
+        case TYPE_CODE_ARRAY:
+        case TYPE_CODE_TUPLE: {
+            final int initialCapacity = Math.min(len, window.capacity() / UNIT_LENGTH_BYTES);
+            if(arrayType.dynamic && elementType.dynamic) {
+                boolean[] present = new boolean[initialCapacity];
+                for (int i = 0; i < len; i++) {
+                    if(i == present.length) {
+                        present = Arrays.copyOf(present, grow(i, len));
+                    }
+                    present[i] = (Integer) decode(Encoding.OFFSET_TYPE) > 0;
+                }
+                final Object[] dest = (Object[]) Array.newInstance(elementType.clazz, len); // len offsets have been read
+                for (int i = 0; i < len; i++) {
+                    if(present[i]) {
+                        dest[i] = decode(elementType);
+                    }
+                }
+                return dest;
+            }
+            Object[] dest = (Object[]) Array.newInstance(elementType.clazz, initialCapacity);
+            for (int i = 0; i < len; i++) {
+                if(i == dest.length) {
+                    dest = Arrays.copyOf(dest, grow(i, len));
+                }
+                dest[i] = decode(elementType);
+            }
+            return dest;
+        }
+        default: { // arrays of unit types, decoded a window at a time into the primitive (or BigInteger etc.) array
+            final Class<?> componentType = arrayType.clazz.getComponentType();
+            final int perWindow = window.capacity() / UNIT_LENGTH_BYTES;
+            Object dest = Array.newInstance(componentType, Math.min(len, perWindow));
+            int capacity = Array.getLength(dest);
+            for (int i = 0; i < len; ) {
+                final int n = Math.min(len - i, perWindow);
+                require(n * UNIT_LENGTH_BYTES);
+                if(i + n > capacity) {
+                    final Object grown = Array.newInstance(componentType, capacity = Math.max(grow(capacity, len), i + n));
+                    System.arraycopy(dest, 0, grown, 0, i);
+                    dest = grown;
+                }
+                arrayType.decodeUnits(window, dest, i, i + n, unitBuffer);
+                i += n;
+            }
+            return dest;
+        }
+        }
+    }
+
+    private boolean streams(ArrayType<?, ?> arrayType, int len) {
+        return handler != null
+                && arrayType.elementType.typeCode() == TYPE_CODE_BYTE
+                && arrayType.length == ArrayType.DYNAMIC_LENGTH
+                && len >= streamThreshold;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stream(ArrayType<?, ?> arrayType, int len) throws IOException {
+        final ContentStream contents = new ContentStream(len);
+        try {
+            handler.handle((ArrayType<ByteType, ?>) arrayType, len, contents);
+        } finally {
+            contents.open = false;
+        }
+        discard(contents.remaining);
+    }
+
+    /** Reads the contents of a streamed value, first from the window and then straight from the channel. */
+    private final class ContentStream extends InputStream {
+
+        private final byte[] one = new byte[1];
+        private int remaining;
+        private boolean open = true;
+
+        ContentStream(int len) {
+            this.remaining = len;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(!open) {
+                throw new IOException("stream closed: read it before the handler returns");
+            }
+            if(off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if(remaining == 0) {
+                return -1;
+            }
+            if(len == 0) {
+                return 0;
+            }
+            len = Math.min(len, remaining);
+            int n;
+            if(window.hasRemaining()) {
+                n = Math.min(len, window.remaining());
+                window.get(b, off, n);
+            } else {
+                do {
+                    n = in.read(ByteBuffer.wrap(b, off, len));
+                } while (n == 0);
+                if(n < 0) {
+                    throw new EOFException("unexpected end of input: " + remaining + " bytes short");
+                }
+            }
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return Math.min(remaining, window.remaining());
+        }
+    }
+
+    private static int staticByteLength(ABIType<?> type) {
+        switch (type.typeCode()) {
+        case TYPE_CODE_ARRAY:
+            final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+            return arrayType.elementType.typeCode() == TYPE_CODE_BYTE
+                    ? Integers.roundLengthUp(arrayType.length, UNIT_LENGTH_BYTES)
+                    : arrayType.length * staticByteLength(arrayType.elementType);
+        case TYPE_CODE_TUPLE:
+            int len = 0;
+            for (ABIType<?> e : ((TupleType) type).elementTypes) {
+                len += staticByteLength(e);
+            }
+            return len;
+        default: return UNIT_LENGTH_BYTES;
+        }
+    }
+
+    /** Ensures that the window holds at least {@code n} unread bytes. {@code n} must not exceed the window's capacity. */
+    private void require(int n) throws IOException {
+        while (window.remaining() < n) {
+            if(fill() < 0) {
+                throw new EOFException("unexpected end of input: " + window.remaining() + " of " + n + " bytes available");
+            }
+        }
+    }
+
+    private int fill() throws IOException {
+        window.compact();
+        try {
+            return in.read(window);
+        } finally {
+            window.flip();
+        }
+    }
+
+    /** Fills {@code out} from {@code off} to its end. */
+    private void readFully(byte[] out, int off) throws IOException {
+        final int buffered = Math.min(window.remaining(), out.length - off);
+        window.get(out, off, buffered);
+        final ByteBuffer rest = ByteBuffer.wrap(out, off + buffered, out.length - off - buffered);
+        while (rest.hasRemaining()) {
+            if(in.read(rest) < 0) {
+                throw new EOFException("unexpected end of input: " + rest.remaining() + " bytes short");
+            }
+        }
+    }
+
+    /** Skips {@code n} bytes, which may exceed the window's capacity. */
+    private void discard(int n) throws IOException {
+        while (n > 0) {
+            if(!window.hasRemaining() && fill() < 0) {
+                throw new EOFException("unexpected end of input: " + n + " bytes short");
+            }
+            final int k = Math.min(n, window.remaining());
+            window.position(window.position() + k);
+            n -= k;
+        }
+    }
+
+    private void skip(int n) throws IOException {
+        require(n); // n < UNIT_LENGTH_BYTES
+        window.position(window.position() + n);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import com.esaulpaugh.headlong.util.Integers;
+import com.esaulpaugh.headlong.util.Strings;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_ARRAY;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_BYTE;
+import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_TUPLE;
+import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
+
+/**
+ * Writes an ABI encoding to a channel in order, through a fixed-size scratch buffer. Any value whose encoding fits in the
+ * scratch buffer is encoded there as usual; larger tuples and arrays are written piecewise and the contents of large
+ * byte arrays are written straight from the caller's array. Values are assumed to have been validated.
+ */
+final class StreamingEncoder {
+
+    static final int DEFAULT_SCRATCH_LEN = 8192;
+
+    private final WritableByteChannel out;
+    private final ByteBuffer scratch;
+    private int written = 0;
+
+    StreamingEncoder(WritableByteChannel out, int scratchLen) {
+        if(scratchLen < UNIT_LENGTH_BYTES) {
+            throw new IllegalArgumentException("scratch buffer too small: " + scratchLen + " < " + UNIT_LENGTH_BYTES);
+        }
+        this.out = out;
+        this.scratch = ByteBuffer.allocate(scratchLen);
+    }
+
+    void put(byte[] bytes) throws IOException {
+        if(bytes.length <= scratch.capacity()) {
+            ensure(bytes.length);
+            scratch.put(bytes);
+        } else {
+            flush();
+            writeFully(ByteBuffer.wrap(bytes));
+        }
+    }
+
+    int finish() throws IOException {
+        flush();
+        return written;
+    }
+
+    /** Equivalent to {@link ABIType#encodeTail(Object, ByteBuffer)} for any type. */
+    void encode(ABIType<?> type, Object value) throws IOException {
+        final int len = type.byteLength(value);
+        if(len <= scratch.capacity()) {
+            ensure(len);
+            if(type.dynamic) {
+                type.encodeTail(value, scratch);
+            } else {
+                type.encodeHead(value, scratch, 0);
+            }
+            return;
+        }
+        switch (type.typeCode()) {
+        case TYPE_CODE_TUPLE: encodeTuple((TupleType) type, (Tuple) value); return;
+        case TYPE_CODE_ARRAY: encodeArray((ArrayType<?, ?>) type, value); return;
+        default: throw new Error(); // unit types always fit
+        }
+    }
+
+    private void encodeTuple(TupleType tupleType, Tuple tuple) throws IOException {
+        final ABIType<?>[] types = tupleType.elementTypes;
+        final Object[] values = tuple.elements;
+        int nextOffset = TupleType.headLengthSum(types, values);
+        for (int i = 0; i < types.length; i++) {
+            final ABIType<?> t = types[i];
+            if(t.dynamic) {
+                putInt(nextOffset);
+                nextOffset += t.byteLength(values[i]);
+            } else {
+                encode(t, values[i]);
+            }
+        }
+        for (int i = 0; i < types.length; i++) {
+            if(types[i].dynamic) {
+                encode(types[i], values[i]);
+            }
+        }
+    }
+
+    private void encodeArray(ArrayType<?, ?> arrayType, Object value) throws IOException {
+        final ABIType<?> elementType = arrayType.elementType;
+        final boolean dynamicLen = arrayType.length == ArrayType.DYNAMIC_LENGTH;
+        switch (elementType.typeCode()) {
+        case TYPE_CODE_BYTE: {
+            final byte[] bytes = !arrayType.isString ? (byte[]) value : Strings.decode((String) value, Strings.UTF_8);
+            if(dynamicLen) {
+                putInt(bytes.length);
+            }
+            flush();
+            writeFully(ByteBuffer.wrap(bytes));
+            final int padding = Integers.roundLengthUp(bytes.length, UNIT_LENGTH_BYTES) - bytes.length;
+            ensure(padding);
+            Encoding.insertPadding(padding, false, scratch);
+            return;
+        }
+        case TYPE_CODE_ARRAY:
+        case TYPE_CODE_TUPLE: {
+            final Object[] objects = (Object[]) value;
+            if(dynamicLen) {
+                putInt(objects.length);
+            }
+            if(elementType.dynamic) {
+                int nextOffset = objects.length * UNIT_LENGTH_BYTES;
+                for (Object e : objects) {
+                    putInt(nextOffset);
+                    nextOffset += elementType.byteLength(e);
+                }
+            }
+            for (Object e : objects) {
+                encode(elementType, e);
+            }
+            return;
+        }
+        default: { // arrays of unit types
+            final int len = Array.getLength(value);
+            if(dynamicLen) {
+                putInt(len);
+            }
+            for (int i = 0; i < len; i++) {
+                ensure(UNIT_LENGTH_BYTES);
+                elementType.encodeHead(Array.get(value, i), scratch, 0);
+            }
+        }
+        }
+    }
+
+    private void putInt(long val) throws IOException {
+        ensure(UNIT_LENGTH_BYTES);
+        Encoding.insertInt(val, scratch);
+    }
+
+    private void ensure(int len) throws IOException {
+        if(scratch.remaining() < len) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        scratch.flip();
+        writeFully(scratch);
+        scratch.clear();
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        written += src.remaining();
+        while (src.hasRemaining()) {
+            out.write(src);
+        }
+    }
+}
@@ -15,13 +15,22 @@
 */
 package com.esaulpaugh.headlong.abi;
 
+import com.esaulpaugh.headlong.util.BufferAllocator;
 import com.esaulpaugh.headlong.util.Integers;
 import com.esaulpaugh.headlong.util.Strings;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.esaulpaugh.headlong.abi.Encoding.OFFSET_LENGTH_BYTES;
 import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
@@ -37,10 +46,12 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
     public static final TupleType EMPTY = new TupleType(EMPTY_TUPLE_STRING, false, EMPTY_TYPE_ARRAY);
 
     final ABIType<?>[] elementTypes;
+    private final int staticPackedLen; // -1 if dynamic
 
     private TupleType(String canonicalType, boolean dynamic, ABIType<?>[] elementTypes) {
         super(canonicalType, Tuple.class, dynamic);
         this.elementTypes = elementTypes;
+        this.staticPackedLen = dynamic ? -1 : staticByteLengthPacked();
     }
 
     static <E extends ABIType<?>> TupleType wrap(E[] elements) {
@@ -101,6 +112,9 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
      */
     @Override
     public int byteLengthPacked(Object value) {
+        if (!dynamic) {
+            return staticPackedLen;
+        }
         if (value == null) {
             return staticByteLengthPacked();
         }
@@ -152,13 +166,30 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
         }
     }
 
+    /** Encodes with dynamic array elements of this tuple delegated to {@link ArrayType#encodeTail(Object, ByteBuffer, ForkJoinPool)}. */
+    void encodeTail(Tuple value, ByteBuffer dest, ForkJoinPool pool) {
+        final Object[] values = value.elements;
+        final ABIType<?>[] types = elementTypes;
+        encodeHeads(types, values, dest, !dynamic ? -1 : headLengthSum(types, values));
+        for (int i = 0; i < types.length; i++) {
+            ABIType<?> t = types[i];
+            if(t.dynamic) {
+                if(t instanceof ArrayType) {
+                    ((ArrayType<?, ?>) t).encodeTail(values[i], dest, pool);
+                } else {
+                    t.encodeTail(values[i], dest);
+                }
+            }
+        }
+    }
+
     private static void encodeHeads(ABIType<?>[] types, Object[] values, ByteBuffer dest, int nextOffset) {
         for (int i = 0; i < types.length; i++) {
             nextOffset = types[i].encodeHead(values[i], dest, nextOffset);
         }
     }
 
-    private static int headLengthSum(ABIType<?>[] types, Object[] elements) {
+    static int headLengthSum(ABIType<?>[] types, Object[] elements) {
         int sum = 0;
         for (int i = 0; i < types.length; i++) {
             ABIType<?> type = types[i];
@@ -168,8 +199,16 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
     }
 
     public Tuple decode(byte[] array) {
+        return decode(array, DecodeMode.STRICT);
+    }
+
+    public Tuple decode(ByteBuffer bb) {
+        return decode(bb, newUnitBuffer());
+    }
+
+    public Tuple decode(byte[] array, DecodeMode mode) {
         ByteBuffer bb = ByteBuffer.wrap(array);
-        Tuple decoded = decode(bb);
+        Tuple decoded = decode(bb, mode);
         final int remaining = bb.remaining();
         if(remaining == 0) {
             return decoded;
@@ -177,25 +216,40 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
         throw new IllegalArgumentException("unconsumed bytes: " + remaining + " remaining");
     }
 
-    public Tuple decode(ByteBuffer bb) {
-        return decode(bb, newUnitBuffer());
+    /**
+     * Decodes the data at the buffer's current position according to the given mode.
+     *
+     * @param bb   the buffer containing the encoding
+     * @param mode the decode mode
+     * @return the decoded values
+     * @see DecodeMode
+     */
+    public Tuple decode(ByteBuffer bb, DecodeMode mode) {
+        return decode(bb, newUnitBuffer(), mode);
     }
 
     @Override
     Tuple decode(ByteBuffer bb, byte[] unitBuffer) {
+        return decode(bb, unitBuffer, DecodeMode.STRICT);
+    }
+
+    @Override
+    Tuple decode(ByteBuffer bb, byte[] unitBuffer, DecodeMode mode) {
+        if (mode == DecodeMode.LENIENT && dynamic) {
+            return decodeLenient(bb, unitBuffer, new LenientBudget(bb.limit()));
+        }
         final int len = elementTypes.length;
         final Object[] elements = new Object[len];
         if (!dynamic) {
             for (int i = 0; i < len; i++) {
-                elements[i] = elementTypes[i].decode(bb, unitBuffer);
+                elements[i] = elementTypes[i].decode(bb, unitBuffer, mode);
             }
         } else {
-//        final int index = bb.position(); // *** save this value here if you want to support lenient mode below
             final int[] offsets = new int[len];
             for (int i = 0; i < len; i++) {
                 ABIType<?> elementType = elementTypes[i];
                 if (!elementType.dynamic) {
-                    elements[i] = elementType.decode(bb, unitBuffer);
+                    elements[i] = elementType.decode(bb, unitBuffer, mode);
                 } else {
                     offsets[i] = Encoding.OFFSET_TYPE.decode(bb, unitBuffer);
                 }
@@ -203,17 +257,141 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
             for (int i = 0; i < len; i++) {
                 if (offsets[i] > 0) {
                     /* OPERATES IN STRICT MODE; see https://github.com/ethereum/solidity/commit/3d1ca07e9b4b42355aa9be5db5c00048607986d1 */
-//                if(bb.position() != index + offset) {
-//                    System.err.println(TupleType.class.getName() + " setting " + bb.position() + " to " + (index + offset) + ", offset=" + offset);
-//                    bb.position(index + offset); // lenient
-//                }
-                    elements[i] = elementTypes[i].decode(bb, unitBuffer);
+                    elements[i] = elementTypes[i].decode(bb, unitBuffer, mode);
                 }
             }
         }
         return new Tuple(elements);
     }
 
+    /** Seeks to each dynamic element's offset, then leaves the buffer positioned after the furthest byte read. */
+    private Tuple decodeLenient(ByteBuffer bb, byte[] unitBuffer, LenientBudget budget) {
+        final int len = elementTypes.length;
+        final Object[] elements = new Object[len];
+        final int index = bb.position();
+        final int[] offsets = new int[len];
+        for (int i = 0; i < len; i++) {
+            ABIType<?> elementType = elementTypes[i];
+            if (!elementType.dynamic) {
+                elements[i] = elementType.decode(bb, unitBuffer, DecodeMode.LENIENT);
+            } else {
+                offsets[i] = Encoding.OFFSET_TYPE.decode(bb, unitBuffer);
+            }
+        }
+        budget.charge(bb.position() - index);
+        int end = bb.position();
+        for (int i = 0; i < len; i++) {
+            if (elementTypes[i].dynamic) {
+                elements[i] = decodeTail(elementTypes[i], index + offsets[i], bb, unitBuffer, budget);
+                end = Math.max(end, bb.position());
+            }
+        }
+        bb.position(end);
+        return new Tuple(elements);
+    }
+
+    /** Decodes the dynamic value at {@code start}, charging the budget for any tail that is not itself a container of tails. */
+    static Object decodeTail(ABIType<?> type, int start, ByteBuffer bb, byte[] unitBuffer, LenientBudget budget) {
+        bb.position(start);
+        if (type instanceof TupleType) {
+            return ((TupleType) type).decodeLenient(bb, unitBuffer, budget);
+        }
+        final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+        if (arrayType.getElementType().dynamic) {
+            return arrayType.decodeLenient(bb, unitBuffer, budget);
+        }
+        final Object value = type.decode(bb, unitBuffer, DecodeMode.LENIENT);
+        budget.charge(bb.position() - start);
+        return value;
+    }
+
+    /**
+     * Decodes (in strict mode) the encoding read from the channel, reading only as far as each value requires through a
+     * small window instead of first buffering the whole encoding. The contents of large {@code bytes} and {@code string}
+     * values are read directly into their destination arrays; the decoded values are still held in memory whole. To
+     * consume large values as streams instead, see {@link #decode(ReadableByteChannel, int, StreamedBytesHandler)}. The
+     * channel must contain exactly one encoding.
+     *
+     * @param in the source of the encoding
+     * @return the decoded values
+     * @throws IOException  if an I/O error occurs, including {@link java.io.EOFException} if the encoding is truncated
+     * @throws IllegalArgumentException if the encoding is malformed or followed by unconsumed bytes
+     */
+    public Tuple decode(ReadableByteChannel in) throws IOException {
+        return decode(in, StreamingDecoder.DEFAULT_WINDOW_LEN);
+    }
+
+    public Tuple decode(InputStream in) throws IOException {
+        return decode(Channels.newChannel(in));
+    }
+
+    /**
+     * Decodes as {@link #decode(ReadableByteChannel)} does, except that each dynamic {@code bytes} or {@code string} value
+     * at least {@code streamThreshold} bytes long is passed to {@code handler} as a stream over the channel instead of
+     * being read into memory. Such values are left null in the result.
+     *
+     * @param in              the source of the encoding
+     * @param streamThreshold the length in bytes from which values are streamed
+     * @param handler         the recipient of the streamed values
+     * @return the decoded values, with streamed values null
+     * @throws IOException              if an I/O error occurs, including one thrown by {@code handler}
+     * @throws IllegalArgumentException if the encoding is malformed or followed by unconsumed bytes, or if
+     *                                  {@code streamThreshold} is negative
+     */
+    public Tuple decode(ReadableByteChannel in, int streamThreshold, StreamedBytesHandler handler) throws IOException {
+        return decode(new StreamingDecoder(in, StreamingDecoder.DEFAULT_WINDOW_LEN, streamThreshold, handler));
+    }
+
+    public Tuple decode(InputStream in, int streamThreshold, StreamedBytesHandler handler) throws IOException {
+        return decode(Channels.newChannel(in), streamThreshold, handler);
+    }
+
+    Tuple decode(ReadableByteChannel in, int windowLen) throws IOException {
+        return decode(new StreamingDecoder(in, windowLen));
+    }
+
+    private Tuple decode(StreamingDecoder decoder) throws IOException {
+        Tuple decoded = (Tuple) decoder.decode(this);
+        decoder.finish();
+        return decoded;
+    }
+
+    /**
+     * Decodes the data at the buffer's current position, using the given pool to decode the elements of large arrays of
+     * arrays or of tuples concurrently. Small arrays are decoded serially. Unlike serial decoding, offsets to the dynamic
+     * elements of a concurrently decoded array must be exact.
+     *
+     * @param bb   the buffer containing the encoding
+     * @param pool the pool on which to run the decoding tasks
+     * @return the decoded values
+     */
+    public Tuple decode(ByteBuffer bb, ForkJoinPool pool) {
+        final byte[] unitBuffer = newUnitBuffer();
+        final int len = elementTypes.length;
+        final Object[] elements = new Object[len];
+        final boolean[] tails = new boolean[len];
+        for (int i = 0; i < len; i++) {
+            ABIType<?> elementType = elementTypes[i];
+            if (!elementType.dynamic) {
+                elements[i] = decode(elementType, bb, unitBuffer, pool);
+            } else {
+                tails[i] = Encoding.OFFSET_TYPE.decode(bb, unitBuffer) > 0;
+            }
+        }
+        for (int i = 0; i < len; i++) {
+            if (tails[i]) {
+                elements[i] = decode(elementTypes[i], bb, unitBuffer, pool);
+            }
+        }
+        return new Tuple(elements);
+    }
+
+    private static Object decode(ABIType<?> type, ByteBuffer bb, byte[] unitBuffer, ForkJoinPool pool) {
+        return type instanceof ArrayType
+                ? ((ArrayType<?, ?>) type).decode(bb, unitBuffer, pool)
+                : type.decode(bb, unitBuffer);
+    }
+
     @Override
     public Tuple parseArgument(String s) {
         throw new UnsupportedOperationException();
@@ -229,12 +407,97 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
         return dest;
     }
 
+    /**
+     * Encodes {@code values} into a buffer from {@code allocator}, which the caller may release once done with it.
+     *
+     * @param values    the values to be encoded
+     * @param allocator the source of the buffer
+     * @return the encoding, between the buffer's position (zero) and its limit
+     */
+    public ByteBuffer encode(Tuple values, BufferAllocator allocator) {
+        ByteBuffer dest = allocator.allocate(validate(values));
+        encodeTail(values, dest);
+        dest.flip();
+        return dest;
+    }
+
     public TupleType encode(Tuple values, ByteBuffer dest) {
         validate(values);
         encodeTail(values, dest);
         return this;
     }
 
+    /**
+     * Encodes {@code values}, using the given pool to encode the elements of large dynamic arrays of arrays or of tuples
+     * concurrently. Small arrays are encoded serially.
+     *
+     * @param values the values to be encoded
+     * @param pool   the pool on which to run the encoding tasks
+     * @return the encoding
+     */
+    public ByteBuffer encode(Tuple values, ForkJoinPool pool) {
+        ByteBuffer dest = ByteBuffer.allocate(validate(values));
+        encodeTail(values, dest, pool);
+        return dest;
+    }
+
+    public TupleType encode(Tuple values, ByteBuffer dest, ForkJoinPool pool) {
+        validate(values);
+        encodeTail(values, dest, pool);
+        return this;
+    }
+
+    /**
+     * Encodes {@code values} without validating them; lengths are computed but values are not checked against their types.
+     * For values known to be valid, such as those produced by a decoder. Invalid values may produce a malformed encoding
+     * or an unchecked exception.
+     *
+     * @param values the trusted values
+     * @return the encoding
+     */
+    public ByteBuffer encodeTrusted(Tuple values) {
+        ByteBuffer dest = ByteBuffer.allocate(byteLength(values));
+        encodeTail(values, dest);
+        return dest;
+    }
+
+    /**
+     * Puts the encoding of {@code values} into {@code dest} without validating them.
+     *
+     * @param values the trusted values
+     * @param dest   the destination buffer
+     * @return this
+     * @see #encodeTrusted(Tuple)
+     */
+    public TupleType encodeTrusted(Tuple values, ByteBuffer dest) {
+        encodeTail(values, dest);
+        return this;
+    }
+
+    /**
+     * Validates {@code values} and writes their encoding to the channel in order, without materializing the whole
+     * encoding. Memory use is bounded by a small scratch buffer, except that string arguments are converted to UTF-8.
+     *
+     * @param values the values to be encoded
+     * @param out    the destination
+     * @return the number of bytes written
+     * @throws IOException  if an I/O error occurs
+     */
+    public int encode(Tuple values, WritableByteChannel out) throws IOException {
+        validate(values);
+        return encode(values, out, StreamingEncoder.DEFAULT_SCRATCH_LEN);
+    }
+
+    public int encode(Tuple values, OutputStream out) throws IOException {
+        return encode(values, Channels.newChannel(out));
+    }
+
+    int encode(Tuple values, WritableByteChannel out, int scratchLen) throws IOException {
+        StreamingEncoder encoder = new StreamingEncoder(out, scratchLen);
+        encoder.encode(this, values);
+        return encoder.finish();
+    }
+
     public int measureEncodedLength(Tuple values) {
         return validate(values);
     }
@@ -263,6 +526,33 @@ public final class TupleType extends ABIType<Tuple> implements Iterable<ABIType<
         PackedEncoder.encodeTuple(this, values, dest);
     }
 
+    /**
+     * Returns the Keccak-256 hash of the non-standard packed encoding of {@code values}, i.e.
+     * {@code keccak256(abi.encodePacked(...))}, without materializing the encoding.
+     *
+     * @param values the values to be hashed
+     * @return the 32-byte hash
+     */
+    public byte[] hashPacked(Tuple values) {
+        return hashPacked(values, Function.newDefaultDigest());
+    }
+
+    /**
+     * Feeds the non-standard packed encoding of {@code values} into the given digest through a small scratch buffer and
+     * completes the hash. Reusing one digest across calls avoids allocating a new one per hash.
+     *
+     * @param values the values to be hashed
+     * @param digest the digest, which may already contain a prefix
+     * @return the result of {@link MessageDigest#digest()}
+     */
+    public byte[] hashPacked(Tuple values, MessageDigest digest) {
+        validate(values);
+        final ByteBuffer scratch = ByteBuffer.allocate(PackedEncoder.HASH_SCRATCH_LEN);
+        PackedEncoder.hashTuple(this, values, scratch, digest);
+        PackedEncoder.flush(scratch, digest);
+        return digest.digest();
+    }
+
     @Override
     public Iterator<ABIType<?>> iterator() {
         return new Iterator<ABIType<?>>() {
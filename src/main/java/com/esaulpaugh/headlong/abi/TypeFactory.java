@@ -69,23 +69,45 @@ final class TypeFactory {
                 }
 
                 final ABIType<?> elementType = buildType(rawType.substring(0, arrayOpenIndex), baseType, nameless);
-                final String arrayClassName = elementType.arrayClassName();
-                @SuppressWarnings("unchecked")
-                final Class<Object> arrayClass = (Class<Object>) Class.forName(arrayClassName, false, CLASS_LOADER);
-                final boolean dynamic = length == DYNAMIC_LENGTH || elementType.dynamic;
-                return new ArrayType<ABIType<?>, Object>(elementType.canonicalType + rawType.substring(arrayOpenIndex), arrayClass, dynamic, elementType, length, '[' + arrayClassName);
+                return arrayType(elementType, length, rawType.substring(arrayOpenIndex));
             }
             if(baseType != null || (baseType = resolveBaseType(rawType, nameless)) != null) {
                 return baseType;
             }
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
         } catch (StringIndexOutOfBoundsException sioobe) { // e.g. type equals "" or "82]" or "[]" or "[1]"
             /* fall through */
         }
         throw new IllegalArgumentException("unrecognized type: " + rawType);
     }
 
+    /**
+     * Creates an array type directly from its element type, without parsing a type string.
+     *
+     * @param elementType the element type
+     * @param length      the array length, or {@link ArrayType#DYNAMIC_LENGTH}
+     * @param name        the name of the new type, or null
+     * @return the array type
+     */
+    static ABIType<?> createArray(ABIType<?> elementType, int length, String name) {
+        if (length < DYNAMIC_LENGTH) {
+            throw new IllegalArgumentException("negative array length");
+        }
+        return arrayType(elementType, length, length == DYNAMIC_LENGTH ? "[]" : "[" + length + ']')
+                .setName(name);
+    }
+
+    private static ArrayType<ABIType<?>, Object> arrayType(ABIType<?> elementType, int length, String suffix) {
+        final String arrayClassName = elementType.arrayClassName();
+        try {
+            @SuppressWarnings("unchecked")
+            final Class<Object> arrayClass = (Class<Object>) Class.forName(arrayClassName, false, CLASS_LOADER);
+            final boolean dynamic = length == DYNAMIC_LENGTH || elementType.dynamic;
+            return new ArrayType<>(elementType.canonicalType + suffix, arrayClass, dynamic, elementType, length, '[' + arrayClassName);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private static ABIType<?> resolveBaseType(String baseTypeStr, boolean nameless) {
         if(baseTypeStr.charAt(0) == '(') {
             return parseTupleType(baseTypeStr);
@@ -66,6 +66,18 @@ abstract class UnitType<V> extends ABIType<V> { // V generally extends Number or
         return nextOffset;
     }
 
+    @Override
+    final V decode(ByteBuffer bb, byte[] unitBuffer, DecodeMode mode) {
+        return mode != DecodeMode.STRICT_UNCHECKED ? decode(bb, unitBuffer) : decodeUnchecked(bb, unitBuffer);
+    }
+
+    /** Reads a unit without validating its value. */
+    abstract V decodeUnchecked(ByteBuffer bb, byte[] unitBuffer);
+
+    static void skipHighBytes(ByteBuffer bb, int lowBytes) {
+        bb.position(bb.position() + UNIT_LENGTH_BYTES - lowBytes);
+    }
+
     final void validatePrimitive(long longVal) {
         checkBitLen(longVal >= 0 ? Integers.bitLen(longVal) : BizarroIntegers.bitLen(longVal));
         if (unsigned && longVal < 0) {
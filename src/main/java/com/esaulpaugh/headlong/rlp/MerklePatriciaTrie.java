@@ -0,0 +1,242 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.rlp;
+
+import com.esaulpaugh.headlong.util.Integers;
+import com.esaulpaugh.headlong.util.Strings;
+import com.joemelsha.crypto.hash.Keccak;
+
+import java.util.Arrays;
+
+import static com.esaulpaugh.headlong.rlp.TrieNode.BRANCH_WIDTH;
+import static com.esaulpaugh.headlong.rlp.TrieNode.HASH_LEN;
+
+/**
+ * An in-memory Merkle-Patricia trie whose root hash is recomputed incrementally. Each node caches its reference (its
+ * encoding if shorter than 32 bytes, otherwise its hash) until an insert passes through it, so {@link #root()} encodes
+ * and hashes only the nodes on the paths of keys inserted since the last call. Inserts themselves do no hashing, and
+ * any number may be batched between calls to {@link #root()}. Not thread-safe.
+ */
+public final class MerklePatriciaTrie {
+
+    private static final byte[] EMPTY_TRIE_ENCODING = new byte[] { DataType.STRING_SHORT_OFFSET };
+
+    private Node root;
+    private byte[] rootHash;
+    private int size;
+
+    /**
+     * Returns the key under which the transaction or receipt with the given index is stored, i.e. the RLP encoding of
+     * the index as a scalar.
+     *
+     * @param index the index within the block
+     * @return the key
+     */
+    public static byte[] indexKey(int index) {
+        if(index < 0) {
+            throw new IllegalArgumentException("negative index");
+        }
+        return RLPEncoder.encodeString(Integers.toBytes(index));
+    }
+
+    /**
+     * Inserts a value or replaces the value already under the key.
+     *
+     * @param key   the key
+     * @param value the value, which must not be empty
+     * @return this trie
+     */
+    public MerklePatriciaTrie put(byte[] key, byte[] value) {
+        if(value.length == 0) {
+            throw new IllegalArgumentException("empty value");
+        }
+        root = insert(root, TrieNode.nibbles(key), 0, value.clone());
+        rootHash = null;
+        return this;
+    }
+
+    /**
+     * @param key the key
+     * @return the value under the key, or null if there is none
+     */
+    public byte[] get(byte[] key) {
+        final byte[] k = TrieNode.nibbles(key);
+        int pos = 0;
+        Node n = root;
+        while (n != null) {
+            if(n instanceof Leaf) {
+                final Leaf leaf = (Leaf) n;
+                return commonPrefixLen(leaf.path, k, pos) == leaf.path.length && pos + leaf.path.length == k.length
+                        ? leaf.value.clone()
+                        : null;
+            }
+            if(n instanceof Extension) {
+                final Extension ext = (Extension) n;
+                if(commonPrefixLen(ext.path, k, pos) != ext.path.length) {
+                    return null;
+                }
+                pos += ext.path.length;
+                n = ext.child;
+            } else {
+                final Branch branch = (Branch) n;
+                if(pos == k.length) {
+                    return branch.value != null ? branch.value.clone() : null;
+                }
+                n = branch.children[k[pos++]];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** @return the Keccak-256 hash of the root node's encoding, reusing the cached references of unchanged subtrees */
+    public byte[] root() {
+        if(rootHash == null) {
+            rootHash = new Keccak(256).digest(root != null ? root.encode() : EMPTY_TRIE_ENCODING);
+        }
+        return Arrays.copyOf(rootHash, HASH_LEN);
+    }
+
+    private Node insert(Node n, byte[] k, int pos, byte[] value) {
+        if(n == null) {
+            size++;
+            return new Leaf(Arrays.copyOfRange(k, pos, k.length), value);
+        }
+        n.ref = null;
+        if(n instanceof Branch) {
+            final Branch branch = (Branch) n;
+            if(pos == k.length) {
+                if(branch.value == null) {
+                    size++;
+                }
+                branch.value = value;
+            } else {
+                branch.children[k[pos]] = insert(branch.children[k[pos]], k, pos + 1, value);
+            }
+            return branch;
+        }
+        if(n instanceof Extension) {
+            final Extension ext = (Extension) n;
+            final int common = commonPrefixLen(ext.path, k, pos);
+            if(common == ext.path.length) {
+                ext.child = insert(ext.child, k, pos + common, value);
+                return ext;
+            }
+            final Branch branch = new Branch();
+            branch.children[ext.path[common]] = common + 1 == ext.path.length
+                    ? ext.child
+                    : new Extension(Arrays.copyOfRange(ext.path, common + 1, ext.path.length), ext.child);
+            return split(ext.path, common, branch, k, pos + common, value);
+        }
+        final Leaf leaf = (Leaf) n;
+        final int common = commonPrefixLen(leaf.path, k, pos);
+        if(common == leaf.path.length && pos + common == k.length) {
+            leaf.value = value;
+            return leaf;
+        }
+        final Branch branch = new Branch();
+        if(common == leaf.path.length) {
+            branch.value = leaf.value;
+        } else {
+            branch.children[leaf.path[common]] = new Leaf(Arrays.copyOfRange(leaf.path, common + 1, leaf.path.length), leaf.value);
+        }
+        return split(leaf.path, common, branch, k, pos + common, value);
+    }
+
+    /** Adds the new key's remainder to {@code branch} and puts the branch under any shared path. */
+    private Node split(byte[] path, int common, Branch branch, byte[] k, int pos, byte[] value) {
+        size++;
+        if(pos == k.length) {
+            branch.value = value;
+        } else {
+            branch.children[k[pos]] = new Leaf(Arrays.copyOfRange(k, pos + 1, k.length), value);
+        }
+        return common == 0 ? branch : new Extension(Arrays.copyOf(path, common), branch);
+    }
+
+    private static int commonPrefixLen(byte[] path, byte[] k, int pos) {
+        final int max = Math.min(path.length, k.length - pos);
+        int i = 0;
+        while (i < max && path[i] == k[pos + i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private abstract static class Node {
+
+        byte[] ref; // null until computed and after any insert below this node
+
+        abstract byte[] encode();
+
+        final byte[] ref() {
+            if(ref == null) {
+                ref = TrieNode.reference(encode());
+            }
+            return ref;
+        }
+    }
+
+    private static final class Leaf extends Node {
+
+        final byte[] path;
+        byte[] value;
+
+        Leaf(byte[] path, byte[] value) {
+            this.path = path;
+            this.value = value;
+        }
+
+        @Override
+        byte[] encode() {
+            return TrieNode.encodeLeaf(path, 0, path.length, value);
+        }
+    }
+
+    private static final class Extension extends Node {
+
+        final byte[] path;
+        Node child;
+
+        Extension(byte[] path, Node child) {
+            this.path = path;
+            this.child = child;
+        }
+
+        @Override
+        byte[] encode() {
+            return TrieNode.encodeExtension(path, 0, path.length, child.ref());
+        }
+    }
+
+    private static final class Branch extends Node {
+
+        final Node[] children = new Node[BRANCH_WIDTH];
+        byte[] value;
+
+        @Override
+        byte[] encode() {
+            final byte[][] refs = new byte[BRANCH_WIDTH][];
+            for (int i = 0; i < BRANCH_WIDTH; i++) {
+                refs[i] = children[i] != null ? children[i].ref() : Strings.EMPTY_BYTE_ARRAY;
+            }
+            return TrieNode.encodeBranch(refs, value != null ? value : Strings.EMPTY_BYTE_ARRAY);
+        }
+    }
+}
@@ -15,14 +15,23 @@
 */
 package com.esaulpaugh.headlong.rlp;
 
+import com.esaulpaugh.headlong.util.Integers;
+
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.BiPredicate;
 
+import static com.esaulpaugh.headlong.rlp.DataType.LIST_LONG_OFFSET;
+import static com.esaulpaugh.headlong.rlp.DataType.LIST_SHORT_OFFSET;
+import static com.esaulpaugh.headlong.rlp.DataType.MIN_LONG_DATA_LEN;
+import static com.esaulpaugh.headlong.rlp.DataType.STRING_LONG_OFFSET;
+import static com.esaulpaugh.headlong.rlp.DataType.STRING_SHORT_OFFSET;
+
 /** Decodes RLP-formatted data. */
 public final class RLPDecoder {
 
@@ -31,8 +40,103 @@ public final class RLPDecoder {
 
     public final boolean lenient;
 
+    private final int maxDepth;
+    private final int maxItemLength;
+    private final int maxListElements;
+    final long maxTotalBytes;
+    private final boolean limited;
+
     private RLPDecoder(boolean lenient) {
+        this(lenient, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    private RLPDecoder(boolean lenient, int maxDepth, int maxItemLength, int maxListElements, long maxTotalBytes) {
         this.lenient = lenient;
+        this.maxDepth = maxDepth;
+        this.maxItemLength = maxItemLength;
+        this.maxListElements = maxListElements;
+        this.maxTotalBytes = maxTotalBytes;
+        this.limited = maxDepth != Integer.MAX_VALUE
+                || maxItemLength != Integer.MAX_VALUE
+                || maxListElements != Integer.MAX_VALUE
+                || maxTotalBytes != Long.MAX_VALUE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Configures a decoder for untrusted input. Each limit defaults to unlimited. A limited decoder validates every
+     * top-level item in full (see {@link #validate(byte[], int, int)}) before wrapping it. Iterating a list with a
+     * limited decoder, or retrieving an item from an {@link RLPIndex} built or loaded with one, validates that list or item
+     * against the limits first unless that same decoder has already validated it, e.g. by wrapping it or an enclosing
+     * list. Walking a tree wrapped by a limited decoder therefore validates each item only once.
+     */
+    public static final class Builder {
+
+        private boolean lenient;
+        private int maxDepth = Integer.MAX_VALUE;
+        private int maxItemLength = Integer.MAX_VALUE;
+        private int maxListElements = Integer.MAX_VALUE;
+        private long maxTotalBytes = Long.MAX_VALUE;
+
+        private Builder() {}
+
+        public Builder lenient(boolean lenient) {
+            this.lenient = lenient;
+            return this;
+        }
+
+        /**
+         * @param maxDepth the maximum number of nested lists; a top-level list has depth one, so zero admits only strings
+         * @return this builder
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = checkLimit(maxDepth);
+            return this;
+        }
+
+        /**
+         * @param maxItemLength the maximum data length of any string or list
+         * @return this builder
+         */
+        public Builder maxItemLength(int maxItemLength) {
+            this.maxItemLength = checkLimit(maxItemLength);
+            return this;
+        }
+
+        /**
+         * @param maxListElements the maximum number of elements directly within any list
+         * @return this builder
+         */
+        public Builder maxListElements(int maxListElements) {
+            this.maxListElements = checkLimit(maxListElements);
+            return this;
+        }
+
+        /**
+         * @param maxTotalBytes the maximum number of bytes decoded from one sequence or read from one stream
+         * @return this builder
+         */
+        public Builder maxTotalBytes(long maxTotalBytes) {
+            if(maxTotalBytes < 0) {
+                throw new IllegalArgumentException("negative limit: " + maxTotalBytes);
+            }
+            this.maxTotalBytes = maxTotalBytes;
+            return this;
+        }
+
+        private static int checkLimit(int limit) {
+            if(limit < 0) {
+                throw new IllegalArgumentException("negative limit: " + limit);
+            }
+            return limit;
+        }
+
+        public RLPDecoder build() {
+            return new RLPDecoder(lenient, maxDepth, maxItemLength, maxListElements, maxTotalBytes);
+        }
     }
 
     public Iterator<RLPItem> sequenceIterator(byte[] buffer) {
@@ -47,6 +151,7 @@ public final class RLPDecoder {
      * @return an iterator over the items in the sequence
      */
     public Iterator<RLPItem> sequenceIterator(byte[] buffer, int index) {
+        final int start = index;
         return new RLPStreamIterator(null, RLPDecoder.this, buffer, index) {
 
             @Override
@@ -55,7 +160,7 @@ public final class RLPDecoder {
                     return true;
                 }
                 if (index < buffer.length) {
-                    next = decoder.wrap(buffer, index);
+                    next = decoder.wrapChecked(buffer, index, Integer.MAX_VALUE, index - start);
                     this.index = next.endIndex;
                     return true;
                 }
@@ -64,6 +169,17 @@ public final class RLPDecoder {
         };
     }
 
+    /**
+     * Records the start of each item in a sequence so that items can later be retrieved by position in constant time.
+     *
+     * @param buffer the array containing the sequence
+     * @return the index
+     * @see RLPIndex#build(RLPDecoder, byte[], int, int)
+     */
+    public RLPIndex index(byte[] buffer) {
+        return RLPIndex.build(this, buffer, 0, buffer.length);
+    }
+
     public RLPStream stream(byte[] bytes) {
         return stream(new ByteArrayInputStream(bytes));
     }
@@ -102,7 +218,11 @@ public final class RLPDecoder {
         switch (type) {
         case SINGLE_BYTE:
         case STRING_SHORT:
-        case STRING_LONG: return new RLPString(lead, type, buffer, index, Integer.MAX_VALUE, lenient);
+        case STRING_LONG:
+            checkLimits(buffer, index, Integer.MAX_VALUE, 0);
+            final RLPString item = new RLPString(lead, type, buffer, index, Integer.MAX_VALUE, lenient);
+            item.validatedBy = this;
+            return item;
         default: throw new IllegalArgumentException("item is not a string");
         }
     }
@@ -116,7 +236,11 @@ public final class RLPDecoder {
         DataType type = DataType.type(lead);
         switch (type) {
         case LIST_SHORT:
-        case LIST_LONG: return new RLPList(lead, type, buffer, index, Integer.MAX_VALUE, lenient);
+        case LIST_LONG:
+            checkLimits(buffer, index, Integer.MAX_VALUE, 0);
+            final RLPList item = new RLPList(lead, type, buffer, index, Integer.MAX_VALUE, lenient);
+            item.validatedBy = this;
+            return item;
         default: throw new IllegalArgumentException("item is not a list");
         }
     }
@@ -137,7 +261,31 @@ public final class RLPDecoder {
     }
 
     public RLPItem wrap(byte[] buffer, int index) {
-        return wrap(buffer, index, Integer.MAX_VALUE);
+        return wrapChecked(buffer, index, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Wraps a top-level item, first enforcing this decoder's limits if it has any.
+     *
+     * @param consumed the number of bytes of the enclosing sequence already decoded
+     */
+    RLPItem wrapChecked(byte[] buffer, int index, int containerEnd, long consumed) {
+        checkLimits(buffer, index, containerEnd, consumed);
+        final RLPItem item = wrap(buffer, index, containerEnd);
+        item.validatedBy = this;
+        return item;
+    }
+
+    void checkLimits(byte[] buffer, int index, int containerEnd, long consumed) {
+        if(limited) {
+            checkTotal(consumed + validate(buffer, index, containerEnd) - index);
+        }
+    }
+
+    void checkTotal(long total) {
+        if(total > maxTotalBytes) {
+            throw new IllegalArgumentException("total bytes exceed limit: " + total + " > " + maxTotalBytes);
+        }
     }
 
     RLPItem wrap(byte[] buffer, int index, int containerEnd) {
@@ -153,6 +301,111 @@ public final class RLPDecoder {
         }
     }
 
+    /**
+     * Checks the well-formedness of the item at {@code index} and of every item nested within it, applying the same rules
+     * as {@link #wrap(byte[], int)} and {@link RLPList#elements(RLPDecoder)} but without creating any {@link RLPItem}s.
+     * Lists are traversed iteratively, so deep nesting cannot overflow the call stack. Also enforces this decoder's
+     * depth, item length and list element limits, if any.
+     *
+     * @param buffer       the array containing the item
+     * @param index        the index of the item
+     * @param containerEnd the index past which the item may not extend
+     * @return the end index of the item
+     * @throws IllegalArgumentException if the item or any item within it is malformed
+     */
+    public int validate(byte[] buffer, int index, int containerEnd) {
+        final int end = itemEnd(buffer, index, Math.min(buffer.length, containerEnd));
+        if((buffer[index] & 0xFF) < (LIST_SHORT_OFFSET & 0xFF)) {
+            return end;
+        }
+        if(maxDepth < 1) {
+            throw new IllegalArgumentException("nesting depth exceeds limit: 1 > " + maxDepth + " @ " + index);
+        }
+        int[] stack = null; // end and element count of each enclosing list
+        int depth = 0;
+        int limit = end;
+        int count = 0;
+        int i = listDataIndex(buffer, index);
+        while (true) {
+            while (i == limit) {
+                if(depth == 0) {
+                    return end;
+                }
+                depth--;
+                limit = stack[depth * 2];
+                count = stack[depth * 2 + 1];
+            }
+            if(++count > maxListElements) {
+                throw new IllegalArgumentException("list element count exceeds limit: " + count + " > " + maxListElements + " for element @ " + i);
+            }
+            final int itemEnd = itemEnd(buffer, i, limit);
+            if((buffer[i] & 0xFF) >= (LIST_SHORT_OFFSET & 0xFF)) {
+                if(depth + 2 > maxDepth) {
+                    throw new IllegalArgumentException("nesting depth exceeds limit: " + (depth + 2) + " > " + maxDepth + " @ " + i);
+                }
+                if(stack == null) {
+                    stack = new int[16];
+                } else if(depth * 2 == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[depth * 2] = limit;
+                stack[depth * 2 + 1] = count;
+                depth++;
+                limit = itemEnd;
+                count = 0;
+                i = listDataIndex(buffer, i);
+            } else {
+                i = itemEnd;
+            }
+        }
+    }
+
+    private static int listDataIndex(byte[] buffer, int index) {
+        final int lead = buffer[index] & 0xFF;
+        return lead <= (LIST_LONG_OFFSET & 0xFF) ? index + 1 : index + 1 + lead - (LIST_LONG_OFFSET & 0xFF);
+    }
+
+    /** Validates the item's prefix as the {@link RLPItem} constructor does and returns the item's end index. */
+    private int itemEnd(byte[] buffer, int index, int containerEnd) {
+        final int lead = buffer[index] & 0xFF;
+        if(lead < (STRING_SHORT_OFFSET & 0xFF)) {
+            if(index + 1 > containerEnd) {
+                throw RLPItem.exceedsContainer(index, index + 1, containerEnd, containerEnd == buffer.length);
+            }
+            return index + 1;
+        }
+        final boolean isString = lead < (LIST_SHORT_OFFSET & 0xFF);
+        final int shortOffset = (isString ? STRING_SHORT_OFFSET : LIST_SHORT_OFFSET) & 0xFF;
+        final int longOffset = (isString ? STRING_LONG_OFFSET : LIST_LONG_OFFSET) & 0xFF;
+        final int dataIndex;
+        final long dataLength;
+        if(lead <= longOffset) {
+            dataIndex = index + 1;
+            dataLength = lead - shortOffset;
+        } else {
+            final int lengthLen = lead - longOffset;
+            dataIndex = index + 1 + lengthLen;
+            if(dataIndex > containerEnd) {
+                throw RLPItem.exceedsContainer(index, dataIndex, containerEnd, containerEnd == buffer.length);
+            }
+            dataLength = Integers.getLong(buffer, index + 1, lengthLen, lenient);
+            if(dataLength < MIN_LONG_DATA_LEN) {
+                throw new IllegalArgumentException("long element data length must be " + MIN_LONG_DATA_LEN + " or greater; found: " + dataLength + " for element @ " + index);
+            }
+        }
+        if(maxItemLength != Integer.MAX_VALUE && dataLength > maxItemLength) {
+            throw new IllegalArgumentException("item data length exceeds limit: " + dataLength + " > " + maxItemLength + " for element @ " + index);
+        }
+        final long end = dataIndex + dataLength;
+        if(end > containerEnd) {
+            throw RLPItem.exceedsContainer(index, end, containerEnd, containerEnd == buffer.length);
+        }
+        if(!lenient && isString && dataLength == 1 && buffer[dataIndex] >= 0x00) { // same as (buffer[dataIndex] & 0xFF) < 0x80
+            throw new IllegalArgumentException("invalid rlp for single byte @ " + index);
+        }
+        return (int) end;
+    }
+
     /*
      *  Methods for gathering sequential items into a collection
      */
@@ -198,9 +451,10 @@ public final class RLPDecoder {
     }
     // -------
     public int collect(byte[] encodings, int index, BiPredicate<Integer, Integer> predicate, Collection<RLPItem> collection) {
+        final int start = index;
         int count = 0;
         while (predicate.test(count, index)) {
-            RLPItem item = wrap(encodings, index);
+            RLPItem item = wrapChecked(encodings, index, Integer.MAX_VALUE, index - start);
             collection.add(item);
             count++;
             index = item.endIndex;
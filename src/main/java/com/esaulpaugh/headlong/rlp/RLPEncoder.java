@@ -15,6 +15,7 @@
 */
 package com.esaulpaugh.headlong.rlp;
 
+import com.esaulpaugh.headlong.util.BufferAllocator;
 import com.esaulpaugh.headlong.util.Integers;
 
 import java.nio.ByteBuffer;
@@ -121,7 +122,7 @@ public final class RLPEncoder {
         throw new IllegalArgumentException("unsupported object type: " + raw.getClass().getName());
     }
 
-    private static int stringEncodedLen(byte[] byteString) {
+    static int stringEncodedLen(byte[] byteString) { // visible to TrieNode
         final int dataLen = byteString.length;
         return Byte.BYTES +
                 (isShort(dataLen)
@@ -136,7 +137,7 @@ public final class RLPEncoder {
         return Byte.BYTES + (isShort(dataLen) ? dataLen : Integers.len(dataLen) + dataLen);
     }
 
-    // visible to Record
+    // visible to Record and TrieNode
     static void encodeItem(Object raw, ByteBuffer bb) {
         if (raw instanceof byte[]) {
             encodeString((byte[]) raw, bb);
@@ -202,6 +203,21 @@ public final class RLPEncoder {
         return bb.array();
     }
 
+    /**
+     * Returns the RLP encoding of the given byte string in a buffer from {@code allocator}, which the caller may release
+     * once done with it.
+     *
+     * @param byteString the byte string to be encoded
+     * @param allocator  the source of the buffer
+     * @return the encoding, between the buffer's position (zero) and its limit
+     */
+    public static ByteBuffer encodeString(byte[] byteString, BufferAllocator allocator) {
+        ByteBuffer bb = allocator.allocate(stringEncodedLen(byteString));
+        encodeString(byteString, bb);
+        bb.flip();
+        return bb;
+    }
+
     /**
      * Returns the concatenation of the encodings of the given objects in the given order.
      *
@@ -310,6 +326,18 @@ public final class RLPEncoder {
     public static void encodeAsList(Object[] elements, ByteBuffer dest) {
         encodeAsList(Arrays.asList(elements), dest);
     }
+
+    /**
+     * Returns the encoding of an RLP list item containing the given elements encoded in the given order, in a buffer
+     * from {@code allocator} which the caller may release once done with it.
+     *
+     * @param elements  the raw elements to be encoded as an RLP list item
+     * @param allocator the source of the buffer
+     * @return the encoded RLP list item, between the buffer's position (zero) and its limit
+     */
+    public static ByteBuffer encodeAsList(Object[] elements, BufferAllocator allocator) {
+        return encodeAsList(Arrays.asList(elements), allocator);
+    }
 //----------------------------------------------------------------------------------------------------------------------
     /**
      * Returns the encoding of an RLP list item containing the given elements encoded in the given order.
@@ -349,6 +377,22 @@ public final class RLPEncoder {
     public static void encodeAsList(Iterable<?> elements, ByteBuffer dest) {
         encodeList(sumEncodedLen(elements), elements, dest);
     }
+
+    /**
+     * Returns the encoding of an RLP list item containing the given elements encoded in the given order, in a buffer
+     * from {@code allocator} which the caller may release once done with it.
+     *
+     * @param elements  the raw elements to be encoded as an RLP list item
+     * @param allocator the source of the buffer
+     * @return the encoded RLP list item, between the buffer's position (zero) and its limit
+     */
+    public static ByteBuffer encodeAsList(Iterable<?> elements, BufferAllocator allocator) {
+        int dataLen = sumEncodedLen(elements);
+        ByteBuffer bb = allocator.allocate(prefixLength(dataLen) + dataLen);
+        encodeList(dataLen, elements, bb);
+        bb.flip();
+        return bb;
+    }
 //----------------------------------------------------------------------------------------------------------------------
     /**
      * Wraps n encodings in an {@link RLPList}.
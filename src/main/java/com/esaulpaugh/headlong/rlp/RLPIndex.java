@@ -0,0 +1,156 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.rlp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The start offsets of the top-level items in a sequence of concatenated RLP items, recorded in a single scan so that
+ * the {@code n}th item can be retrieved without walking the items before it. An index can be saved alongside the data
+ * with {@link #writeTo(OutputStream)} and loaded again with {@link #readFrom(InputStream, RLPDecoder, byte[])}.
+ */
+public final class RLPIndex {
+
+    private static final int MAGIC = 0x524c5049; // "RLPI"
+
+    private final RLPDecoder decoder;
+    private final byte[] buffer;
+    private final int[] offsets; // one per item followed by the end of the last item
+
+    private RLPIndex(RLPDecoder decoder, byte[] buffer, int[] offsets) {
+        this.decoder = decoder;
+        this.buffer = buffer;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Scans the items in {@code buffer} between {@code from} and {@code to}, validating each one in full, along with every
+     * item nested within it (see {@link RLPDecoder#validate(byte[], int, int)}), whatever the decoder's limits.
+     *
+     * @param decoder the decoder with which to validate and later retrieve items
+     * @param buffer  the array containing the sequence
+     * @param from    the index of the first item
+     * @param to      the end of the sequence
+     * @return the index
+     * @throws IllegalArgumentException if an item or any item within it is malformed, or if an item extends past
+     *                                  {@code to}
+     */
+    public static RLPIndex build(RLPDecoder decoder, byte[] buffer, int from, int to) {
+        int[] offsets = new int[16];
+        int count = 0;
+        int i = from;
+        while (i < to) {
+            if(count == offsets.length - 1) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count++] = i;
+            i = decoder.validate(buffer, i, to);
+            decoder.checkTotal(i - from);
+        }
+        offsets[count] = i;
+        return new RLPIndex(decoder, buffer, Arrays.copyOf(offsets, count + 1));
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @param n the position of the item in the sequence
+     * @return the {@code n}th item
+     * @throws IndexOutOfBoundsException if {@code n} is negative or not less than {@link #size()}
+     * @throws IllegalArgumentException  if the item is malformed or does not end at the next recorded offset
+     */
+    public RLPItem get(int n) {
+        checkIndex(n);
+        final RLPItem item = decoder.wrapChecked(buffer, offsets[n], offsets[n + 1], offsets[n] - offsets[0]);
+        if(item.endIndex != offsets[n + 1]) {
+            throw new IllegalArgumentException("item @ " + offsets[n] + " ends at " + item.endIndex + ", not at the next offset " + offsets[n + 1]);
+        }
+        return item;
+    }
+
+    /**
+     * @param n the position of the item in the sequence
+     * @return the index into the buffer of the {@code n}th item
+     */
+    public int offsetOf(int n) {
+        checkIndex(n);
+        return offsets[n];
+    }
+
+    private void checkIndex(int n) {
+        if(n < 0 || n >= offsets.length - 1) {
+            throw new IndexOutOfBoundsException(n + " not in [0," + (offsets.length - 1) + ")");
+        }
+    }
+
+    /**
+     * Writes the offsets, but not the data, in a form that {@link #readFrom(InputStream, RLPDecoder, byte[])} reads.
+     *
+     * @param out the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(offsets.length);
+        for (int offset : offsets) {
+            dos.writeInt(offset);
+        }
+        dos.flush();
+    }
+
+    /**
+     * Reads offsets written by {@link #writeTo(OutputStream)} for the given data. Items are validated, including against
+     * the decoder's limits, as they are retrieved rather than up front.
+     *
+     * @param in      the source of the offsets
+     * @param decoder the decoder with which to retrieve items
+     * @param buffer  the array containing the sequence that was indexed
+     * @return the index
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the offsets are malformed or do not fit {@code buffer}
+     */
+    public static RLPIndex readFrom(InputStream in, RLPDecoder decoder, byte[] buffer) throws IOException {
+        final DataInputStream dis = new DataInputStream(in);
+        if(dis.readInt() != MAGIC) {
+            throw new IllegalArgumentException("not an RLP index");
+        }
+        final int len = dis.readInt();
+        if(len < 1 || len > buffer.length + 1) { // at most one item per byte
+            throw new IllegalArgumentException("bad offset count: " + len);
+        }
+        final int[] offsets = new int[len];
+        int prev = 0;
+        for (int i = 0; i < len; i++) {
+            final int offset = dis.readInt();
+            if(offset < prev || (i > 0 && offset == prev)) {
+                throw new IllegalArgumentException("offsets not increasing at " + i);
+            }
+            offsets[i] = prev = offset;
+        }
+        if(prev > buffer.length) {
+            throw new IllegalArgumentException("index extends past buffer: " + prev + " > " + buffer.length);
+        }
+        return new RLPIndex(decoder, buffer, offsets);
+    }
+}
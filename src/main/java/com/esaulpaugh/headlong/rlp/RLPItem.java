@@ -46,6 +46,9 @@ public abstract class RLPItem {
     public final transient int dataLength;
     public final transient int endIndex;
 
+    /** The decoder whose limits, if any, this item and every item within it are known to satisfy. */
+    transient RLPDecoder validatedBy;
+
     RLPItem(final byte lead, final DataType type, final byte[] buffer, final int index, int containerEnd, final boolean lenient) {
         containerEnd = Math.min(buffer.length, containerEnd);
 
@@ -223,6 +226,18 @@ public abstract class RLPItem {
         return Integers.getBigInt(buffer, dataIndex, dataLength, lenient);
     }
 
+    /**
+     * Reads this item as an unsigned integer of up to 256 bits, e.g. a transaction value, into {@code dest[0]} through
+     * {@code dest[3]}, most significant 64 bits first. Unlike {@link #asBigInt(boolean)}, nothing is allocated.
+     *
+     * @param dest    the destination of the four limbs
+     * @param lenient whether to allow leading zeroes in the raw data
+     * @throws IllegalArgumentException if the data is longer than 32 bytes or has a disallowed leading zero
+     */
+    public void asUInt256(long[] dest, boolean lenient) {
+        Integers.getUInt256(buffer, dataIndex, dataLength, lenient, dest);
+    }
+
     public float asFloat(boolean lenient) {
         return FloatingPoint.getFloat(buffer, dataIndex, dataLength, lenient);
     }
@@ -247,6 +262,10 @@ public abstract class RLPItem {
         return asBigInt(false);
     }
 
+    public void asUInt256(long[] dest) {
+        asUInt256(dest, false);
+    }
+
     public BigInteger asBigIntSigned() {
         return new BigInteger(data());
     }
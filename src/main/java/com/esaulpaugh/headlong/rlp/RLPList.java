@@ -99,14 +99,30 @@ public final class RLPList extends RLPItem implements Iterable<RLPItem> {
     }
 
     public void elements(RLPDecoder decoder, Collection<RLPItem> collection) {
+        checkLimits(decoder);
         int i = dataIndex;
         while (i < this.endIndex) {
-            RLPItem item = decoder.wrap(buffer, i, this.endIndex);
+            RLPItem item = element(decoder, i);
             collection.add(item);
             i = item.endIndex;
         }
     }
 
+    /** Validates this list against the decoder's limits unless that decoder has already validated it. */
+    private void checkLimits(RLPDecoder decoder) {
+        if(validatedBy != decoder) {
+            decoder.checkLimits(buffer, index, endIndex, 0);
+            validatedBy = decoder;
+        }
+    }
+
+    /** Wraps the element at {@code i}, which lies within this list and so has been validated along with it. */
+    private RLPItem element(RLPDecoder decoder, int i) {
+        RLPItem item = decoder.wrap(buffer, i, this.endIndex);
+        item.validatedBy = decoder;
+        return item;
+    }
+
     /** @see RLPItem#duplicate(RLPDecoder) */
     @Override
     public RLPList duplicate(RLPDecoder decoder) {
@@ -129,6 +145,7 @@ public final class RLPList extends RLPItem implements Iterable<RLPItem> {
         private int nextElementIndex;
 
         public RLPListIterator(RLPDecoder decoder) {
+            checkLimits(decoder);
             this.decoder = decoder;
             this.nextElementIndex = RLPList.this.dataIndex;
         }
@@ -141,7 +158,7 @@ public final class RLPList extends RLPItem implements Iterable<RLPItem> {
         @Override
         public RLPItem next() {
             if (hasNext()) {
-                RLPItem next = decoder.wrap(RLPList.this.buffer, this.nextElementIndex, RLPList.this.endIndex);
+                RLPItem next = element(decoder, this.nextElementIndex);
                 this.nextElementIndex = next.endIndex;
                 return next;
             }
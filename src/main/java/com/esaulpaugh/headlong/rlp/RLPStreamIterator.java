@@ -28,6 +28,7 @@ class RLPStreamIterator implements Iterator<RLPItem> {
     protected int index;
 
     protected RLPItem next;
+    private long bytesRead;
 
     RLPStreamIterator(InputStream is, RLPDecoder decoder) {
         this(is, decoder, new byte[0], 0); // make sure index == buffer.length
@@ -48,6 +49,10 @@ class RLPStreamIterator implements Iterator<RLPItem> {
         try {
             final int available = is.available();
             if (available > 0) {
+                if (bytesRead + available > decoder.maxTotalBytes) {
+                    throw new IllegalArgumentException("total bytes exceed limit: " + (bytesRead + available) + " > " + decoder.maxTotalBytes);
+                }
+                bytesRead += available;
                 int keptBytes = buffer.length - index;
                 byte[] newBuffer = new byte[keptBytes + available];
                 System.arraycopy(buffer, index, newBuffer, 0, keptBytes);
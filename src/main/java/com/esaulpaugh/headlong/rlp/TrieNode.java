@@ -0,0 +1,370 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.rlp;
+
+import com.esaulpaugh.headlong.util.Integers;
+import com.esaulpaugh.headlong.util.Strings;
+import com.joemelsha.crypto.hash.Keccak;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.esaulpaugh.headlong.rlp.DataType.MIN_LONG_DATA_LEN;
+import static com.esaulpaugh.headlong.rlp.DataType.STRING_LONG_OFFSET;
+import static com.esaulpaugh.headlong.rlp.DataType.STRING_SHORT_OFFSET;
+import static com.esaulpaugh.headlong.rlp.RLPDecoder.RLP_STRICT;
+
+/**
+ * A node of an Ethereum Merkle-Patricia trie: a {@link Leaf}, an {@link Extension} or a {@link Branch}. A parent refers
+ * to a child by the child's RLP encoding if it is shorter than 32 bytes and otherwise by its Keccak-256 hash. Paths are
+ * arrays of nibbles, one per byte, and are hex-prefix encoded. Each node is encoded directly into a buffer of exact size.
+ */
+public abstract class TrieNode {
+
+    public static final int HASH_LEN = 32;
+    public static final int BRANCH_WIDTH = 16;
+
+    private static final int LEAF_FLAG = 0x20;
+    private static final int ODD_FLAG = 0x10;
+
+    private byte[] encoding;
+    private byte[] hash;
+
+    TrieNode() {}
+
+    abstract byte[] encode();
+
+    final byte[] encodingInternal() {
+        if(encoding == null) {
+            encoding = encode();
+        }
+        return encoding;
+    }
+
+    final byte[] hashInternal() {
+        if(hash == null) {
+            hash = keccak(encodingInternal());
+        }
+        return hash;
+    }
+
+    /** @return how a parent refers to this node: by encoding if shorter than 32 bytes, otherwise by hash */
+    final byte[] referenceInternal() {
+        final byte[] enc = encodingInternal();
+        return enc.length < HASH_LEN ? enc : hashInternal();
+    }
+
+    public final byte[] encoding() {
+        return Arrays.copyOf(encodingInternal(), encodingInternal().length);
+    }
+
+    /** @return the Keccak-256 hash of this node's encoding, e.g. the root hash if this is a root */
+    public final byte[] hash() {
+        return Arrays.copyOf(hashInternal(), HASH_LEN);
+    }
+
+    public final byte[] reference() {
+        final byte[] ref = referenceInternal();
+        return Arrays.copyOf(ref, ref.length);
+    }
+
+    /**
+     * Splits each byte of a key into two nibbles, high first.
+     *
+     * @param key the key
+     * @return the nibbles
+     */
+    public static byte[] nibbles(byte[] key) {
+        final byte[] nibbles = new byte[key.length * 2];
+        for (int i = 0; i < key.length; i++) {
+            nibbles[i * 2] = (byte) ((key[i] >>> 4) & 0x0f);
+            nibbles[i * 2 + 1] = (byte) (key[i] & 0x0f);
+        }
+        return nibbles;
+    }
+
+    /**
+     * Decodes a leaf, extension or branch node.
+     *
+     * @param encoding the node's RLP encoding
+     * @return the node
+     * @throws IllegalArgumentException if the encoding is not a valid node
+     */
+    public static TrieNode decode(byte[] encoding) {
+        final List<RLPItem> items = RLP_STRICT.wrapList(encoding).elements(RLP_STRICT);
+        final TrieNode node;
+        switch (items.size()) {
+        case 2: {
+            final RLPItem hp = items.get(0);
+            if(!hp.isString() || hp.dataLength == 0) {
+                throw new IllegalArgumentException("invalid hex-prefix path");
+            }
+            final byte[] path = decodeHexPrefix(hp.buffer, hp.dataIndex, hp.dataLength);
+            if((hp.buffer[hp.dataIndex] & LEAF_FLAG) != 0) {
+                node = new Leaf(path, items.get(1).asRLPString().asBytes());
+            } else {
+                final byte[] child = decodeReference(items.get(1));
+                if(child.length == 0) {
+                    throw new IllegalArgumentException("extension has no child");
+                }
+                node = new Extension(path, child);
+            }
+            break;
+        }
+        case BRANCH_WIDTH + 1: {
+            final byte[][] children = new byte[BRANCH_WIDTH][];
+            for (int i = 0; i < BRANCH_WIDTH; i++) {
+                children[i] = decodeReference(items.get(i));
+            }
+            node = new Branch(children, items.get(BRANCH_WIDTH).asRLPString().asBytes());
+            break;
+        }
+        default: throw new IllegalArgumentException("invalid node: " + items.size() + " elements");
+        }
+        node.encoding = encoding.clone();
+        return node;
+    }
+
+    private static byte[] decodeHexPrefix(byte[] buffer, int index, int len) {
+        final int first = buffer[index] & 0xFF;
+        if(first > (LEAF_FLAG | ODD_FLAG | 0x0f) || ((first & ODD_FLAG) == 0 && (first & 0x0f) != 0)) {
+            throw new IllegalArgumentException("invalid hex-prefix flags: " + (first >>> 4));
+        }
+        final boolean odd = (first & ODD_FLAG) != 0;
+        final byte[] path = new byte[(len - 1) * 2 + (odd ? 1 : 0)];
+        int p = 0;
+        if(odd) {
+            path[p++] = (byte) (first & 0x0f);
+        }
+        for (int i = index + 1; i < index + len; i++) {
+            path[p++] = (byte) ((buffer[i] >>> 4) & 0x0f);
+            path[p++] = (byte) (buffer[i] & 0x0f);
+        }
+        return path;
+    }
+
+    private static byte[] decodeReference(RLPItem item) {
+        if(item.isList()) {
+            if(item.encodingLength() >= HASH_LEN) {
+                throw new IllegalArgumentException("embedded node too long: " + item.encodingLength() + " >= " + HASH_LEN);
+            }
+            return item.encoding();
+        }
+        switch (item.dataLength) {
+        case 0: return Strings.EMPTY_BYTE_ARRAY;
+        case HASH_LEN: return item.data();
+        default: throw new IllegalArgumentException("invalid node reference length: " + item.dataLength);
+        }
+    }
+
+    private static byte[] keccak(byte[] encoding) {
+        return new Keccak(256).digest(encoding);
+    }
+// ---------------------------------------------------------------------------------------------------------------------
+    static byte[] encodeLeaf(byte[] nibbles, int from, int to, byte[] value) {
+        final int dataLen = hexPrefixEncodedLen(to - from) + RLPEncoder.stringEncodedLen(value);
+        final ByteBuffer bb = newListBuffer(dataLen);
+        putHexPrefix(nibbles, from, to, true, bb);
+        RLPEncoder.encodeItem(value, bb);
+        return bb.array();
+    }
+
+    static byte[] encodeExtension(byte[] nibbles, int from, int to, byte[] childRef) {
+        final int dataLen = hexPrefixEncodedLen(to - from) + referenceEncodedLen(childRef);
+        final ByteBuffer bb = newListBuffer(dataLen);
+        putHexPrefix(nibbles, from, to, false, bb);
+        putReference(childRef, bb);
+        return bb.array();
+    }
+
+    /** @param childRefs sixteen references, each empty, an embedded encoding or a hash */
+    static byte[] encodeBranch(byte[][] childRefs, byte[] value) {
+        int dataLen = RLPEncoder.stringEncodedLen(value);
+        for (byte[] ref : childRefs) {
+            dataLen += referenceEncodedLen(ref);
+        }
+        final ByteBuffer bb = newListBuffer(dataLen);
+        for (byte[] ref : childRefs) {
+            putReference(ref, bb);
+        }
+        RLPEncoder.encodeItem(value, bb);
+        return bb.array();
+    }
+
+    static byte[] reference(byte[] encoding) {
+        return encoding.length < HASH_LEN ? encoding : keccak(encoding);
+    }
+
+    private static ByteBuffer newListBuffer(int dataLen) {
+        final ByteBuffer bb = ByteBuffer.allocate(RLPEncoder.prefixLength(dataLen) + dataLen);
+        RLPEncoder.insertListPrefix(dataLen, bb);
+        return bb;
+    }
+
+    private static int hexPrefixEncodedLen(int numNibbles) {
+        final int len = 1 + numNibbles / 2;
+        return len == 1 ? 1 : RLPEncoder.prefixLength(len) + len; // a lone flag byte is below 0x80
+    }
+
+    private static void putHexPrefix(byte[] nibbles, int from, int to, boolean leaf, ByteBuffer bb) {
+        final int n = to - from;
+        final int len = 1 + n / 2;
+        if(len > 1) {
+            putStringPrefix(len, bb);
+        }
+        int i = from;
+        final int flags = leaf ? LEAF_FLAG : 0;
+        if((n & 1) != 0) {
+            bb.put((byte) (flags | ODD_FLAG | nibbles[i++]));
+        } else {
+            bb.put((byte) flags);
+        }
+        for ( ; i < to; i += 2) {
+            bb.put((byte) ((nibbles[i] << 4) | nibbles[i + 1]));
+        }
+    }
+
+    private static int referenceEncodedLen(byte[] ref) {
+        return ref.length == HASH_LEN ? 1 + HASH_LEN : Math.max(1, ref.length);
+    }
+
+    private static void putReference(byte[] ref, ByteBuffer bb) {
+        switch (ref.length) {
+        case 0: bb.put(STRING_SHORT_OFFSET); return;
+        case HASH_LEN: putStringPrefix(HASH_LEN, bb); /* fall through */
+        default: bb.put(ref); // an embedded node is already encoded
+        }
+    }
+
+    private static void putStringPrefix(int dataLen, ByteBuffer bb) {
+        if(dataLen < MIN_LONG_DATA_LEN) {
+            bb.put((byte) (STRING_SHORT_OFFSET + dataLen));
+        } else {
+            bb.put((byte) (STRING_LONG_OFFSET + Integers.len(dataLen)));
+            Integers.putLong(dataLen, bb);
+        }
+    }
+
+    private static byte[] checkNibbles(byte[] path) {
+        for (byte b : path) {
+            if(b < 0 || b >= BRANCH_WIDTH) {
+                throw new IllegalArgumentException("not a nibble: " + b);
+            }
+        }
+        return path;
+    }
+// ---------------------------------------------------------------------------------------------------------------------
+    /** A path ending in a value. */
+    public static final class Leaf extends TrieNode {
+
+        private final byte[] path;
+        private final byte[] value;
+
+        public Leaf(byte[] path, byte[] value) {
+            this.path = checkNibbles(path.clone());
+            this.value = value.clone();
+        }
+
+        @Override
+        byte[] encode() {
+            return encodeLeaf(path, 0, path.length, value);
+        }
+
+        public byte[] getPath() {
+            return path.clone();
+        }
+
+        public byte[] getValue() {
+            return value.clone();
+        }
+    }
+
+    /** A path shared by every key below it, leading to a single child. */
+    public static final class Extension extends TrieNode {
+
+        private final byte[] path;
+        private final byte[] child;
+
+        public Extension(byte[] path, TrieNode child) {
+            this(checkNibbles(path.clone()), child.referenceInternal());
+        }
+
+        private Extension(byte[] path, byte[] childRef) {
+            this.path = path;
+            this.child = childRef;
+        }
+
+        @Override
+        byte[] encode() {
+            return encodeExtension(path, 0, path.length, child);
+        }
+
+        public byte[] getPath() {
+            return path.clone();
+        }
+
+        /** @return the child's encoding if it is embedded, otherwise its hash */
+        public byte[] getChildReference() {
+            return child.clone();
+        }
+    }
+
+    /** Sixteen children, one per nibble, and the value of the key ending here, if any. */
+    public static final class Branch extends TrieNode {
+
+        private final byte[][] children;
+        private final byte[] value;
+
+        /**
+         * @param children sixteen children, any of which may be null
+         * @param value    the value of the key ending at this node, or the empty array if there is none
+         */
+        public Branch(TrieNode[] children, byte[] value) {
+            this(references(children), value.clone());
+        }
+
+        private Branch(byte[][] childRefs, byte[] value) {
+            this.children = childRefs;
+            this.value = value;
+        }
+
+        private static byte[][] references(TrieNode[] children) {
+            if(children.length != BRANCH_WIDTH) {
+                throw new IllegalArgumentException("expected " + BRANCH_WIDTH + " children, found " + children.length);
+            }
+            final byte[][] refs = new byte[BRANCH_WIDTH][];
+            for (int i = 0; i < BRANCH_WIDTH; i++) {
+                refs[i] = children[i] != null ? children[i].referenceInternal() : Strings.EMPTY_BYTE_ARRAY;
+            }
+            return refs;
+        }
+
+        @Override
+        byte[] encode() {
+            return encodeBranch(children, value);
+        }
+
+        /** @return the child's encoding if it is embedded, its hash, or the empty array if there is no child */
+        public byte[] getChildReference(int nibble) {
+            return children[nibble].clone();
+        }
+
+        public byte[] getValue() {
+            return value.clone();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A source of buffers for encoding, accepted by the encode methods of {@code TupleType}, {@code Function} and
+ * {@code RLPEncoder} that return a {@link ByteBuffer}. A buffer obtained from an allocator may be given back with
+ * {@link #release(ByteBuffer)} once the caller is done with it, after which it must not be used. A buffer's capacity and
+ * backing array may exceed the requested length; only the bytes between its position and limit are meaningful.
+ */
+public interface BufferAllocator {
+
+    /** Allocates a fresh heap buffer per call, of exactly the requested length. {@link #release} does nothing. */
+    BufferAllocator HEAP = new BufferAllocator() {
+        @Override
+        public ByteBuffer allocate(int len) {
+            return ByteBuffer.allocate(len);
+        }
+
+        @Override
+        public void release(ByteBuffer buffer) {
+        }
+    };
+
+    /**
+     * @param len the number of bytes needed
+     * @return a buffer, in big-endian order, whose position is zero and whose limit is {@code len}
+     */
+    ByteBuffer allocate(int len);
+
+    /**
+     * Gives back a buffer obtained from {@link #allocate(int)}, which the caller must not use or release again afterwards.
+     *
+     * @param buffer the buffer
+     */
+    void release(ByteBuffer buffer);
+}
@@ -0,0 +1,58 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hands out consecutive slices of one direct (off-heap) buffer and reclaims them all at once on {@link #reset()}, e.g.
+ * after each batch of messages. {@link #release(ByteBuffer)} does nothing. When the arena lacks room for a request, a
+ * heap buffer is allocated instead. Not thread-safe.
+ */
+public final class BufferArena implements BufferAllocator {
+
+    private final ByteBuffer arena;
+
+    public BufferArena(int capacity) {
+        this.arena = ByteBuffer.allocateDirect(capacity);
+    }
+
+    @Override
+    public ByteBuffer allocate(int len) {
+        if(len > arena.remaining()) {
+            return ByteBuffer.allocate(len);
+        }
+        final int start = arena.position();
+        arena.position(start + len);
+        final ByteBuffer slice = arena.duplicate();
+        slice.position(start).limit(start + len);
+        return slice.slice();
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+    }
+
+    /** Reclaims every slice handed out so far, which must no longer be in use. */
+    public void reset() {
+        arena.clear();
+    }
+
+    /** @return the number of bytes left before allocations fall back to the heap */
+    public int remaining() {
+        return arena.remaining();
+    }
+}
@@ -15,7 +15,9 @@
 */
 package com.esaulpaugh.headlong.util;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 
 /** Uses a larger encoding table to speed up encoding. */
@@ -34,6 +36,18 @@ public final class FastHex {
 
     private static final byte NO_MAPPING = -1;
 
+    private static final int PREFIX_LEN = 2; // "0x"
+
+    private static final int SWAR_CHARS = Long.BYTES;
+    private static final int SWAR_BYTES = SWAR_CHARS / CHARS_PER_BYTE;
+
+    private static final long ONES = 0x01010101_01010101L;
+    private static final long HIGH_BITS = 0x80808080_80808080L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F_7F7F7F7FL;
+    private static final long LOW_NIBBLES = 0x0F0F0F0F_0F0F0F0FL;
+    private static final long EVEN_NIBBLES = 0x0F000F00_0F000F00L;
+    private static final long ODD_NIBBLES = 0x000F000F_000F000FL;
+
     static {
         final int[] ints = new int[] { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
         for (int i = 0; i < ENCODE_TABLE.length; i++) {
@@ -68,21 +82,125 @@ public final class FastHex {
         return encodeToString(buffer, 0, buffer.length);
     }
 
-    @SuppressWarnings("deprecation")
     public static String encodeToString(byte[] buffer, int offset, final int len) {
-        byte[] enc = encodeToBytes(buffer, offset, len);
+        return encodeToString(buffer, offset, len, false);
+    }
+
+    /**
+     * Returns the hexadecimal representation of the given bytes, optionally preceded by "0x".
+     *
+     * @param buffer the array containing the bytes to be encoded
+     * @param offset the index of the first byte
+     * @param len    the number of bytes
+     * @param prefix whether to prepend "0x"
+     * @return the hex string
+     */
+    @SuppressWarnings("deprecation")
+    public static String encodeToString(byte[] buffer, int offset, final int len, boolean prefix) {
+        final int prefixLen = prefix ? PREFIX_LEN : 0;
+        byte[] enc = new byte[prefixLen + encodedLen(len)];
+        if(prefix) {
+            enc[0] = '0';
+            enc[1] = 'x';
+        }
+        encodeToBytes(buffer, offset, len, enc, prefixLen);
         return new String(enc, 0, 0, enc.length);
     }
 
     public static byte[] encodeToBytes(byte[] buffer, int off, final int len) {
+        byte[] bytes = new byte[encodedLen(len)];
+        encodeToBytes(buffer, off, len, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Puts the ASCII hex representation of the given bytes into {@code dest} at {@code destIdx}.
+     *
+     * @param buffer  the array containing the bytes to be encoded
+     * @param off     the index of the first byte
+     * @param len     the number of bytes
+     * @param dest    the destination array, which must have room for {@code len * 2} bytes
+     * @param destIdx the index into {@code dest} at which to begin writing
+     * @return the index into {@code dest} following the last char written
+     */
+    public static int encodeToBytes(byte[] buffer, int off, final int len, byte[] dest, int destIdx) {
         final int end = off + len;
-        byte[] bytes = new byte[len * CHARS_PER_BYTE];
-        for (int j = 0; off < end; off++, j += CHARS_PER_BYTE) {
+        for ( ; off < end; off++, destIdx += CHARS_PER_BYTE) {
             int hexPair = ENCODE_TABLE[buffer[off] & 0xFF];
-            bytes[j] = (byte) (hexPair >>> Byte.SIZE); // left
-            bytes[j+1] = (byte) (hexPair & 0xFF); // right
+            dest[destIdx] = (byte) (hexPair >>> Byte.SIZE); // left
+            dest[destIdx+1] = (byte) (hexPair & 0xFF); // right
         }
-        return bytes;
+        return destIdx;
+    }
+
+    /**
+     * Puts the hex representation of the given bytes into {@code dest} at {@code destIdx}.
+     *
+     * @param buffer  the array containing the bytes to be encoded
+     * @param off     the index of the first byte
+     * @param len     the number of bytes
+     * @param dest    the destination array, which must have room for {@code len * 2} chars
+     * @param destIdx the index into {@code dest} at which to begin writing
+     * @return the index into {@code dest} following the last char written
+     */
+    public static int encodeToChars(byte[] buffer, int off, final int len, char[] dest, int destIdx) {
+        final int end = off + len;
+        for ( ; off < end; off++, destIdx += CHARS_PER_BYTE) {
+            int hexPair = ENCODE_TABLE[buffer[off] & 0xFF];
+            dest[destIdx] = (char) (hexPair >>> Byte.SIZE); // left
+            dest[destIdx+1] = (char) (hexPair & 0xFF); // right
+        }
+        return destIdx;
+    }
+
+    /**
+     * Appends the hex representation of the given bytes to a {@link StringBuilder}.
+     *
+     * @param buffer the array containing the bytes to be encoded
+     * @param off    the index of the first byte
+     * @param len    the number of bytes
+     * @param dest   the destination
+     * @return {@code dest}
+     */
+    public static StringBuilder encodeTo(byte[] buffer, int off, final int len, StringBuilder dest) {
+        dest.ensureCapacity(dest.length() + encodedLen(len));
+        final int end = off + len;
+        for ( ; off < end; off++) {
+            int hexPair = ENCODE_TABLE[buffer[off] & 0xFF];
+            dest.append((char) (hexPair >>> Byte.SIZE)).append((char) (hexPair & 0xFF));
+        }
+        return dest;
+    }
+
+    /**
+     * Appends the hex representation of the given bytes to an {@link Appendable}, such as a {@link java.io.Writer}.
+     *
+     * @param buffer the array containing the bytes to be encoded
+     * @param off    the index of the first byte
+     * @param len    the number of bytes
+     * @param dest   the destination
+     * @param <A>    the type of the destination
+     * @return {@code dest}
+     * @throws IOException if {@code dest} throws
+     */
+    public static <A extends Appendable> A encodeTo(byte[] buffer, int off, final int len, A dest) throws IOException {
+        final int end = off + len;
+        for ( ; off < end; off++) {
+            int hexPair = ENCODE_TABLE[buffer[off] & 0xFF];
+            dest.append((char) (hexPair >>> Byte.SIZE)).append((char) (hexPair & 0xFF));
+        }
+        return dest;
+    }
+
+    public static int encodedLen(int numBytes) {
+        return numBytes * CHARS_PER_BYTE;
+    }
+
+    public static int decodedLen(int numChars) {
+        if (Integers.mod(numChars, CHARS_PER_BYTE) == 0) {
+            return numChars / CHARS_PER_BYTE;
+        }
+        throw new IllegalArgumentException("len must be a multiple of two");
     }
 
     public static byte[] decode(String hex) {
@@ -90,23 +208,190 @@ public final class FastHex {
     }
 
     public static byte[] decode(String hex, int offset, int len) {
-        return decode(hex.getBytes(StandardCharsets.US_ASCII), offset, len);
+        return decode((CharSequence) hex, offset, len);
+    }
+
+    public static byte[] decode(CharSequence hex, int offset, int len) {
+        return decode(hex, offset, len, false);
+    }
+
+    /**
+     * Decodes the hex chars in the given range, which must begin with "0x" (or "0X") if {@code prefixed} is true.
+     *
+     * @param hex      the chars to be decoded
+     * @param offset   the index of the first char
+     * @param len      the number of chars, including the prefix if any
+     * @param prefixed whether the range is expected to begin with "0x"
+     * @return the decoded bytes
+     */
+    public static byte[] decode(CharSequence hex, int offset, int len, boolean prefixed) {
+        if(prefixed) {
+            checkPrefix(hex, offset, len);
+            offset += PREFIX_LEN;
+            len -= PREFIX_LEN;
+        }
+        final byte[] bytes = new byte[decodedLen(len)];
+        decode(hex, offset, len, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Decodes the hex chars in the given range into {@code dest} at {@code destIdx}.
+     *
+     * @param hex     the chars to be decoded
+     * @param offset  the index of the first char
+     * @param len     the number of chars
+     * @param dest    the destination array, which must have room for {@code len / 2} bytes
+     * @param destIdx the index into {@code dest} at which to begin writing
+     * @return the index into {@code dest} following the last byte written
+     */
+    public static int decode(CharSequence hex, int offset, final int len, byte[] dest, int destIdx) {
+        final int end = offset + len;
+        decodedLen(len);
+        for (final int swarEnd = end - SWAR_CHARS; offset <= swarEnd; offset += SWAR_CHARS, destIdx += SWAR_BYTES) {
+            final char a = hex.charAt(offset), b = hex.charAt(offset+1), c = hex.charAt(offset+2), d = hex.charAt(offset+3),
+                    e = hex.charAt(offset+4), f = hex.charAt(offset+5), g = hex.charAt(offset+6), h = hex.charAt(offset+7);
+            if((a | b | c | d | e | f | g | h) >= 0x80) {
+                break; // let the scalar loop report the offending char
+            }
+            final long word = ((long) a << 56) | ((long) b << 48) | ((long) c << 40) | ((long) d << 32)
+                    | ((long) e << 24) | ((long) f << 16) | ((long) g << 8) | h;
+            if(!isHex(word)) {
+                break;
+            }
+            putDecoded(word, dest, destIdx);
+        }
+        for ( ; offset < end; offset += CHARS_PER_BYTE) {
+            dest[destIdx++] = decodePair(hex.charAt(offset), hex.charAt(offset+1), offset);
+        }
+        return destIdx;
     }
 
     public static byte[] decode(final byte[] hexBytes, int offset, final int len) {
-        if (Integers.mod(len, CHARS_PER_BYTE) == 0) {
-            final int bytesLen = len / CHARS_PER_BYTE;
-            final byte[] bytes = new byte[bytesLen];
-            for (int i = 0; i < bytesLen; i++, offset += CHARS_PER_BYTE) {
-                byte left = DECODE_TABLE[hexBytes[offset]];
-                byte right = DECODE_TABLE[hexBytes[offset+1]];
-                if (left == NO_MAPPING || right == NO_MAPPING) {
-                    throw new IllegalArgumentException("illegal hex val @ " + (left == NO_MAPPING ? offset : offset + 1));
-                }
-                bytes[i] = (byte) ((left << BITS_PER_CHAR) | right);
+        final byte[] bytes = new byte[decodedLen(len)];
+        decode(hexBytes, offset, len, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Decodes the ASCII hex chars in the given range into {@code dest} at {@code destIdx}.
+     *
+     * @param hexBytes the ASCII chars to be decoded
+     * @param offset   the index of the first char
+     * @param len      the number of chars
+     * @param dest     the destination array, which must have room for {@code len / 2} bytes
+     * @param destIdx  the index into {@code dest} at which to begin writing
+     * @return the index into {@code dest} following the last byte written
+     */
+    public static int decode(final byte[] hexBytes, int offset, final int len, byte[] dest, int destIdx) {
+        return decode(hexBytes, offset, len, dest, destIdx, 0L);
+    }
+
+    /** @param indexAdjust added to array indices when reporting the position of an illegal char */
+    static int decode(final byte[] hexBytes, int offset, final int len, byte[] dest, int destIdx, final long indexAdjust) {
+        final int end = offset + len;
+        decodedLen(len);
+        for (final int swarEnd = end - SWAR_CHARS; offset <= swarEnd; offset += SWAR_CHARS, destIdx += SWAR_BYTES) {
+            final long word = ((hexBytes[offset] & 0xFFL) << 56) | ((hexBytes[offset+1] & 0xFFL) << 48)
+                    | ((hexBytes[offset+2] & 0xFFL) << 40) | ((hexBytes[offset+3] & 0xFFL) << 32)
+                    | ((hexBytes[offset+4] & 0xFFL) << 24) | ((hexBytes[offset+5] & 0xFFL) << 16)
+                    | ((hexBytes[offset+6] & 0xFFL) << 8) | (hexBytes[offset+7] & 0xFFL);
+            if(!isHex(word)) {
+                break; // let the scalar loop report the offending char
             }
-            return bytes;
+            putDecoded(word, dest, destIdx);
+        }
+        for ( ; offset < end; offset += CHARS_PER_BYTE) {
+            dest[destIdx++] = decodePair(hexBytes[offset] & 0xFF, hexBytes[offset+1] & 0xFF, offset + indexAdjust);
+        }
+        return destIdx;
+    }
+
+    /**
+     * Encodes bytes from the source buffer into the destination buffer until the source is exhausted or the destination
+     * has no room for another pair of chars. Both buffers' positions are advanced.
+     *
+     * @param src  the bytes to be encoded
+     * @param dest the destination for the hex chars
+     * @return the number of bytes consumed from {@code src}
+     */
+    public static int encode(ByteBuffer src, CharBuffer dest) {
+        final int n = Math.min(src.remaining(), dest.remaining() / CHARS_PER_BYTE);
+        final int srcPos = src.position();
+        final int destPos = dest.position();
+        if(src.hasArray() && dest.hasArray()) {
+            encodeToChars(src.array(), src.arrayOffset() + srcPos, n, dest.array(), dest.arrayOffset() + destPos);
+            src.position(srcPos + n);
+            dest.position(destPos + encodedLen(n));
+        } else {
+            for (int i = 0; i < n; i++) {
+                int hexPair = ENCODE_TABLE[src.get() & 0xFF];
+                dest.put((char) (hexPair >>> Byte.SIZE)).put((char) (hexPair & 0xFF));
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Decodes pairs of hex chars from the source buffer into the destination buffer until the source has fewer than two
+     * chars remaining or the destination is full. Both buffers' positions are advanced. A trailing unpaired char is left
+     * in the source.
+     *
+     * @param src  the hex chars to be decoded
+     * @param dest the destination for the bytes
+     * @return the number of bytes written to {@code dest}
+     */
+    public static int decode(CharBuffer src, ByteBuffer dest) {
+        final int n = Math.min(src.remaining() / CHARS_PER_BYTE, dest.remaining());
+        final int srcPos = src.position();
+        final int destPos = dest.position();
+        if(dest.hasArray()) {
+            decode(src, 0, encodedLen(n), dest.array(), dest.arrayOffset() + destPos); // CharBuffer indexing is relative to position
+            src.position(srcPos + encodedLen(n));
+            dest.position(destPos + n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                dest.put(decodePair(src.get(), src.get(), i * CHARS_PER_BYTE));
+            }
+        }
+        return n;
+    }
+
+    private static byte decodePair(int leftChar, int rightChar, long offset) {
+        byte left = leftChar < DECODE_TABLE.length ? DECODE_TABLE[leftChar] : NO_MAPPING;
+        byte right = rightChar < DECODE_TABLE.length ? DECODE_TABLE[rightChar] : NO_MAPPING;
+        if (left == NO_MAPPING || right == NO_MAPPING) {
+            throw new IllegalArgumentException("illegal hex val @ " + (left == NO_MAPPING ? offset : offset + 1));
+        }
+        return (byte) ((left << BITS_PER_CHAR) | right);
+    }
+
+    /**
+     * SWAR (SIMD within a register) check that each of the eight ASCII chars packed into {@code word} is in one of the
+     * ranges [0-9], [a-f], or [A-F]. Each range test sets the high bit of every byte lying strictly between the bounds.
+     */
+    private static boolean isHex(long word) {
+        return (between(word, '0' - 1, '9' + 1) | between(word, 'a' - 1, 'f' + 1) | between(word, 'A' - 1, 'F' + 1)) == HIGH_BITS;
+    }
+
+    private static long between(long word, int m, int n) {
+        final long low7 = word & LOW_SEVEN_BITS;
+        return (ONES * (127 + n) - low7) & ~word & (low7 + ONES * (127 - m)) & HIGH_BITS;
+    }
+
+    /** Converts eight valid hex chars to four bytes. Letters have bit 6 set and a low nibble nine less than their value. */
+    private static void putDecoded(long word, byte[] dest, int destIdx) {
+        final long nibbles = (word & LOW_NIBBLES) + 9 * ((word >>> 6) & ONES);
+        final long pairs = ((nibbles & EVEN_NIBBLES) >>> BITS_PER_CHAR) | (nibbles & ODD_NIBBLES);
+        dest[destIdx] = (byte) (pairs >>> 48);
+        dest[destIdx+1] = (byte) (pairs >>> 32);
+        dest[destIdx+2] = (byte) (pairs >>> 16);
+        dest[destIdx+3] = (byte) pairs;
+    }
+
+    private static void checkPrefix(CharSequence hex, int offset, int len) {
+        if(len < PREFIX_LEN || hex.charAt(offset) != '0' || (hex.charAt(offset + 1) | 0x20) != 'x') {
+            throw new IllegalArgumentException("expected prefix \"0x\"");
         }
-        throw new IllegalArgumentException("len must be a multiple of two");
     }
 }
@@ -0,0 +1,109 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link InputStream} which decodes the ASCII hexadecimal chars read from the underlying stream. Decodes in fixed-size
+ * chunks so that arbitrarily long inputs never need to be held in memory in both representations.
+ *
+ * @see HexEncoderStream
+ */
+public final class HexDecoderStream extends FilterInputStream {
+
+    private final byte[] chars = new byte[HexEncoderStream.CHUNK_LEN];
+    private final byte[] single = new byte[1];
+
+    private int pending; // number of unpaired chars carried over from the previous read, 0 or 1
+    private long position; // index into the underlying stream of chars[0]
+
+    public HexDecoderStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the underlying stream contains an illegal hex char or an odd number of chars
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if(len <= 0) {
+            return 0;
+        }
+        final int want = Math.min(len, chars.length / 2) * 2;
+        int n = pending;
+        while (n < 2) {
+            final int read = in.read(chars, n, want - n);
+            if(read < 0) {
+                if(n == 0) {
+                    return -1;
+                }
+                throw new IllegalArgumentException("len must be a multiple of two");
+            }
+            n += read;
+        }
+        final int even = n & ~1;
+        FastHex.decode(chars, 0, even, b, off, position);
+        position += even;
+        if(even != n) {
+            chars[0] = chars[even];
+            pending = 1;
+        } else {
+            pending = 0;
+        }
+        return even / 2;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final byte[] skipped = new byte[(int) Math.min(n, chars.length / 2)];
+        long remaining = n;
+        while (remaining > 0) {
+            final int read = read(skipped, 0, (int) Math.min(remaining, skipped.length));
+            if(read < 0) {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (in.available() + pending) / 2;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -0,0 +1,55 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link OutputStream} which writes to the underlying stream the ASCII hexadecimal encoding of the bytes written to it.
+ * Encodes in fixed-size chunks so that arbitrarily long inputs never need to be held in memory in both representations.
+ *
+ * @see HexDecoderStream
+ */
+public final class HexEncoderStream extends FilterOutputStream {
+
+    static final int CHUNK_LEN = 8192; // chars
+
+    private final byte[] chars = new byte[CHUNK_LEN];
+    private final byte[] single = new byte[1];
+
+    public HexEncoderStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        final int maxBytes = CHUNK_LEN / 2;
+        while (len > 0) {
+            final int n = Math.min(len, maxBytes);
+            out.write(chars, 0, FastHex.encodeToBytes(b, off, n, chars, 0));
+            off += n;
+            len -= n;
+        }
+    }
+}
@@ -21,6 +21,8 @@ import java.nio.ByteBuffer;
 /** Utility for reading and writing integers from and to RLP-compatible format. */
 public final class Integers {
 
+    private static final int UINT256_BYTES = 32;
+
     /**
      * Returns an integer's minimal big-endian two's complement representation. The integer zero is represented by the
      * empty byte array.
@@ -432,6 +434,9 @@ public final class Integers {
             if(!lenient && buffer[offset] == 0x00) {
                 throw leadingZeroException(offset, len);
             }
+            if(len > 0 && (len < Long.BYTES || (len == Long.BYTES && buffer[offset] >= 0))) { // fits in a non-negative long
+                return BigInteger.valueOf(getLong(buffer, offset, len, true));
+            }
             byte[] arr = new byte[Byte.BYTES + len]; // a leading zero byte
             System.arraycopy(buffer, offset, arr, Byte.BYTES, len);
             return new BigInteger(arr);
@@ -439,6 +444,33 @@ public final class Integers {
         return BigInteger.ZERO;
     }
 
+    /**
+     * Retrieves an unsigned integer up to 32 bytes in length as four 64-bit limbs, most significant first, without
+     * allocating. Big-endian format.
+     *
+     * @param buffer  the array containing the integer's representation
+     * @param offset  the array index locating the integer
+     * @param len     the length in bytes of the integer's representation
+     * @param lenient whether to allow leading zeroes
+     * @param dest    the destination of the limbs, at indices 0 through 3
+     * @throws IllegalArgumentException if {@code len} exceeds 32 or if {@code lenient} is false and the integer's
+     *                                  representation is found to have leading zeroes
+     */
+    public static void getUInt256(byte[] buffer, int offset, int len, boolean lenient, long[] dest) {
+        if(len > UINT256_BYTES) {
+            throw outOfRangeException(len);
+        }
+        if(!lenient && len != 0 && buffer[offset] == 0x00) {
+            throw leadingZeroException(offset, len);
+        }
+        int end = offset + len;
+        for (int i = UINT256_BYTES / Long.BYTES - 1; i >= 0; i--) {
+            final int n = Math.min(Long.BYTES, end - offset);
+            end -= n;
+            dest[i] = getLong(buffer, end, n, true);
+        }
+    }
+
     public static int putBigInt(BigInteger val, byte[] dest, int destIdx) {
         byte[] bytes = val.toByteArray();
         int srcPos = 0;
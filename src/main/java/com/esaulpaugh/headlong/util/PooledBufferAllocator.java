@@ -0,0 +1,96 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Keeps a small pool per thread of buffers in power-of-two size classes from 64 bytes to 64 KiB. A released buffer is
+ * reused by the next allocation on the same thread in its size class; requests larger than the largest class, and
+ * buffers released once their class's pool is full, are left to the garbage collector. Buffers may be released on a
+ * thread other than the one that allocated them.
+ */
+public final class PooledBufferAllocator implements BufferAllocator {
+
+    private static final int MIN_CLASS_SHIFT = 6;
+    private static final int MAX_CLASS_SHIFT = 16;
+    private static final int DEFAULT_BUFFERS_PER_CLASS = 8;
+
+    private final boolean direct;
+    private final int buffersPerClass;
+    private final ThreadLocal<ArrayDeque<ByteBuffer>[]> pools = ThreadLocal.withInitial(PooledBufferAllocator::newPools);
+
+    public PooledBufferAllocator() {
+        this(false, DEFAULT_BUFFERS_PER_CLASS);
+    }
+
+    /**
+     * @param direct          whether to allocate direct (off-heap) buffers
+     * @param buffersPerClass the maximum number of idle buffers kept per size class per thread
+     */
+    public PooledBufferAllocator(boolean direct, int buffersPerClass) {
+        if(buffersPerClass < 0) {
+            throw new IllegalArgumentException("negative buffersPerClass");
+        }
+        this.direct = direct;
+        this.buffersPerClass = buffersPerClass;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayDeque<ByteBuffer>[] newPools() {
+        final ArrayDeque<ByteBuffer>[] pools = new ArrayDeque[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ArrayDeque<>();
+        }
+        return pools;
+    }
+
+    /** @return the index of the smallest size class holding {@code len} bytes, or -1 if none does */
+    private static int sizeClass(int len) {
+        final int shift = Math.max(MIN_CLASS_SHIFT, Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(len, 1) - 1));
+        return shift <= MAX_CLASS_SHIFT ? shift - MIN_CLASS_SHIFT : -1;
+    }
+
+    @Override
+    public ByteBuffer allocate(int len) {
+        final int c = sizeClass(len);
+        if(c < 0) {
+            return newBuffer(len);
+        }
+        final ByteBuffer pooled = pools.get()[c].pollFirst();
+        final ByteBuffer buffer = pooled != null ? pooled : newBuffer(1 << (c + MIN_CLASS_SHIFT));
+        buffer.clear().limit(len);
+        return buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        final int c = sizeClass(capacity);
+        if(c >= 0 && capacity == 1 << (c + MIN_CLASS_SHIFT) && buffer.isDirect() == direct) {
+            final ArrayDeque<ByteBuffer> pool = pools.get()[c];
+            if(pool.size() < buffersPerClass) {
+                pool.addFirst(buffer);
+            }
+        }
+    }
+
+    private ByteBuffer newBuffer(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -17,6 +17,8 @@ package com.esaulpaugh.headlong.util;
 
 import com.migcomponents.migbase64.Base64;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -75,4 +77,37 @@ public final class Strings {
         default: throw new UnsupportedOperationException();
         }
     }
+
+    /**
+     * Returns an {@link OutputStream} which writes to {@code out} the encoding of the bytes written to it. Data is
+     * transcoded in fixed-size chunks. For {@link #BASE_64_URL_SAFE}, trailing bytes are not flushed until the returned
+     * stream is closed.
+     *
+     * @param out      the destination for the encoded (ASCII) chars
+     * @param encoding one of { {@link #BASE_64_URL_SAFE}, {@link #HEX} }
+     * @return the encoding stream
+     */
+    public static OutputStream encoder(OutputStream out, int encoding) {
+        switch (encoding) {
+        case BASE_64_URL_SAFE: return java.util.Base64.getUrlEncoder().withoutPadding().wrap(out);
+        case HEX: return new HexEncoderStream(out);
+        default: throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Returns an {@link InputStream} which decodes the (ASCII) chars read from {@code in}. Data is transcoded in fixed-size
+     * chunks.
+     *
+     * @param in       the source of the encoded chars
+     * @param encoding one of { {@link #BASE_64_URL_SAFE}, {@link #HEX} }
+     * @return the decoding stream
+     */
+    public static InputStream decoder(InputStream in, int encoding) {
+        switch (encoding) {
+        case BASE_64_URL_SAFE: return java.util.Base64.getUrlDecoder().wrap(in);
+        case HEX: return new HexDecoderStream(in);
+        default: throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -23,9 +23,16 @@ import com.google.gson.JsonPrimitive;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_ARRAY;
 import static com.esaulpaugh.headlong.abi.ABIType.TYPE_CODE_TUPLE;
@@ -422,4 +429,56 @@ public class ABIJSONTest {
         assertEquals("a", event.getParams().get(0).getName());
         assertEquals("b", event.getParams().get(1).getName());
     }
+
+    @Test
+    public void testStreamingParse() throws Throwable {
+        List<ABIObject> all = ABIJSON.parseObjects(new StringReader(CONTRACT_JSON), true, true, null);
+        assertEquals(2, all.size());
+        assertEquals(ABIJSON.parseEvents(CONTRACT_JSON).get(0), all.get(0));
+        assertEquals(ABIJSON.parseFunctions(CONTRACT_JSON).get(0), all.get(1));
+
+        assertEquals(ABIJSON.parseFunctions(FALLBACK_CONSTRUCTOR_RECEIVE), ABIJSON.parseFunctions(new StringReader(FALLBACK_CONSTRUCTOR_RECEIVE)));
+        assertEquals(ABIJSON.parseEvents(CONTRACT_JSON), ABIJSON.parseEvents(new StringReader(CONTRACT_JSON)));
+
+        List<ABIObject> filtered = ABIJSON.parseObjects(new StringReader(CONTRACT_JSON), true, true, "an_event"::equals);
+        assertEquals(1, filtered.size());
+        assertEquals("an_event", ((Event) filtered.get(0)).getName());
+
+        assertEquals(1, ABIJSON.parseObjects(new StringReader(FALLBACK_CONSTRUCTOR_RECEIVE), true, false, n -> n != null).size());
+
+        String badTuple = "[{\"type\":\"function\",\"name\":\"f\",\"inputs\":[{\"type\":\"tuple\"}]}]";
+        TestUtils.assertThrown(IllegalArgumentException.class, "array \"components\" null or not found", () -> ABIJSON.parseFunctions(badTuple));
+        // rejected objects are skipped before their types are created
+        assertEquals(0, ABIJSON.parseObjects(new StringReader(badTuple), true, true, "g"::equals).size());
+        assertEquals(0, ABIJSON.parseEvents(badTuple).size());
+        TestUtils.assertThrown(IllegalArgumentException.class, "name is not a string", () -> ABIJSON.parseFunctions("[{\"name\":7}]"));
+
+        String noIndexed = "[{\"type\":\"event\",\"name\":\"e\",\"inputs\":[{\"name\":\"a\",\"type\":\"uint8\"}]}]";
+        TestUtils.assertThrown(NullPointerException.class, () -> ABIJSON.parseEvents(noIndexed));
+        TestUtils.assertThrown(NullPointerException.class, () -> Event.fromJson(noIndexed.substring(1, noIndexed.length() - 1)));
+    }
+
+    @Test
+    public void testParseDirectory() throws Throwable {
+        Path dir = Files.createTempDirectory("abi");
+        try {
+            Files.write(dir.resolve("a.json"), CONTRACT_JSON.getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("b.json"), FALLBACK_CONSTRUCTOR_RECEIVE.getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("c.txt"), "not json".getBytes(StandardCharsets.UTF_8));
+            Map<Path, List<ABIObject>> map = ABIJSON.parseDirectory(dir, true, false, null);
+            assertEquals(2, map.size());
+            assertEquals(ABIJSON.parseFunctions(CONTRACT_JSON), map.get(dir.resolve("a.json")));
+            assertEquals(ABIJSON.parseFunctions(FALLBACK_CONSTRUCTOR_RECEIVE), map.get(dir.resolve("b.json")));
+
+            Files.write(dir.resolve("d.json"), "[{".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertThrows(IOException.class, () -> ABIJSON.parseDirectory(dir, true, true, null));
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) {
+                    Files.delete(f);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
 }
@@ -0,0 +1,98 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import com.esaulpaugh.headlong.TestUtils;
+import com.joemelsha.crypto.hash.Keccak;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ABISnapshotTest {
+
+    private static final String ABI_JSON = "[" +
+            "{\"type\":\"event\",\"name\":\"Transfer\",\"anonymous\":false,\"inputs\":[" +
+            "{\"name\":\"from\",\"type\":\"address\",\"indexed\":true}," +
+            "{\"name\":\"to\",\"type\":\"address\",\"indexed\":true}," +
+            "{\"name\":\"value\",\"type\":\"uint256\",\"indexed\":false}]}," +
+            "{\"type\":\"function\",\"name\":\"foo\",\"stateMutability\":\"view\",\"inputs\":[" +
+            "{\"name\":\"complex_nums\",\"type\":\"tuple[][2]\",\"components\":[" +
+            "{\"name\":\"real\",\"type\":\"fixed128x18\"},{\"name\":\"imaginary\",\"type\":\"decimal\"}]}," +
+            "{\"name\":\"data\",\"type\":\"bytes\"},{\"name\":\"f\",\"type\":\"function[]\"},{\"type\":\"string[3]\"}]," +
+            "\"outputs\":[{\"name\":\"count\",\"type\":\"uint64\"},{\"type\":\"bytes7\"}]}," +
+            "{\"type\":\"fallback\",\"stateMutability\":\"pure\"}," +
+            "{\"type\":\"receive\",\"name\":\"receive\",\"stateMutability\":\"payable\"}" +
+            "]";
+
+    @Test
+    public void testRoundTrip() throws Throwable {
+        final List<ABIObject> objects = ABIJSON.parseObjects(new StringReader(ABI_JSON), true, true, null);
+        assertEquals(4, objects.size());
+        final byte[] snapshot = ABISnapshot.toBytes(objects);
+        final List<ABIObject> restored = ABISnapshot.read(snapshot);
+        assertEquals(objects, restored);
+        for (int i = 0; i < objects.size(); i++) {
+            assertEquals(objects.get(i).toJson(false), restored.get(i).toJson(false)); // includes names
+        }
+
+        Path file = Files.createTempFile("abi", ".snapshot");
+        try {
+            ABISnapshot.write(objects, file);
+            assertEquals(objects, ABISnapshot.read(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMonteCarlo() {
+        final Random r = TestUtils.seededRandom();
+        final Keccak k = new Keccak(256);
+        final List<Function> functions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            functions.add(new MonteCarloTestCase(r.nextLong(), 3, 3, 3, 3, r, k).function);
+        }
+        final List<ABIObject> restored = ABISnapshot.read(ABISnapshot.toBytes(functions));
+        assertEquals(functions, restored);
+        for (int i = 0; i < functions.size(); i++) {
+            assertArrayEquals(functions.get(i).selector(), ((Function) restored.get(i)).selector());
+        }
+    }
+
+    @Test
+    public void testMalformed() throws Throwable {
+        final byte[] snapshot = ABISnapshot.toBytes(ABIJSON.parseFunctions(ABI_JSON));
+        TestUtils.assertThrown(IllegalArgumentException.class, "snapshot truncated", () -> ABISnapshot.read(Arrays.copyOf(snapshot, snapshot.length - 1)));
+        final byte[] badMagic = snapshot.clone();
+        badMagic[0]++;
+        TestUtils.assertThrown(IllegalArgumentException.class, "not a snapshot", () -> ABISnapshot.read(badMagic));
+        final byte[] badVersion = snapshot.clone();
+        badVersion[4] = 9;
+        TestUtils.assertThrown(IllegalArgumentException.class, "unsupported snapshot version: 9", () -> ABISnapshot.read(badVersion));
+        final byte[] badKind = snapshot.clone();
+        badKind[9] = 4;
+        TestUtils.assertThrown(IllegalArgumentException.class, "unknown object kind: 4", () -> ABISnapshot.read(badKind));
+    }
+}
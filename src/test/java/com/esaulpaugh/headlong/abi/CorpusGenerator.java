@@ -0,0 +1,105 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates seeded corpora of {@link MonteCarloTestCase}s for benchmarks and soak tests, persisted via
+ * {@link BenchmarkCorpus}. Shapes are drawn from a distribution weighted toward the short, flat argument lists typical
+ * of mainnet calldata, with a tail of nested and array-heavy calls.
+ */
+public final class CorpusGenerator {
+
+    /** { weight, maxTupleDepth, maxTupleLen, maxArrayDepth, maxArrayLen } */
+    private static final int[][] SHAPES = {
+            { 55, 0, 4, 1, 2 },   // e.g. transfer(address,uint256), approve, balanceOf
+            { 30, 1, 5, 1, 8 },   // a struct or a short array among scalars
+            { 12, 2, 6, 2, 32 },  // nested structs and batches
+            { 3, 1, 3, 1, 256 }   // bulk arrays, e.g. airdrops
+    };
+
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (int[] shape : SHAPES) {
+            total += shape[0];
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private CorpusGenerator() {}
+
+    /**
+     * Generates and writes a corpus.
+     *
+     * @param seed   the seed from which the corpus is generated
+     * @param size   the number of calls
+     * @param writer the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(long seed, int size, Writer writer) throws IOException {
+        BenchmarkCorpus.write(toCalls(generate(seed, size)), writer);
+    }
+
+    static List<MonteCarloTestCase> generate(long seed, int size) {
+        final Random r = new Random(seed);
+        final MessageDigest md = Function.newDefaultDigest();
+        final List<MonteCarloTestCase> cases = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final int[] shape = pickShape(r.nextInt(TOTAL_WEIGHT));
+            cases.add(new MonteCarloTestCase(r.nextLong(), shape[1], shape[2], shape[3], shape[4], r, md));
+        }
+        return cases;
+    }
+
+    private static int[] pickShape(int x) {
+        for (int[] shape : SHAPES) {
+            if ((x -= shape[0]) < 0) {
+                return shape;
+            }
+        }
+        throw new Error();
+    }
+
+    static List<BenchmarkCorpus.Call> toCalls(List<MonteCarloTestCase> cases) {
+        final List<BenchmarkCorpus.Call> calls = new ArrayList<>(cases.size());
+        for (MonteCarloTestCase c : cases) {
+            calls.add(new BenchmarkCorpus.Call(c.function, c.argsTuple));
+        }
+        return calls;
+    }
+
+    /** Usage: {@code CorpusGenerator <output-file> [size] [seed]} */
+    public static void main(String[] args) throws IOException {
+        final Path path = Paths.get(args[0]);
+        final int size = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            write(seed, size, writer);
+        }
+    }
+}
@@ -20,11 +20,25 @@ import com.esaulpaugh.headlong.util.FastHex;
 import com.esaulpaugh.headlong.util.Strings;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.esaulpaugh.headlong.TestUtils.assertThrown;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
@@ -122,4 +136,187 @@ public class DecodeTest {
         System.out.println(Function.formatCall(array));
         assertThrown(IllegalArgumentException.class, "signed value given for unsigned type", () -> f.decodeCall(array));
     }
+
+    @Test
+    public void testParallelDecode() throws Throwable {
+        final Random r = TestUtils.seededRandom();
+        final int n = ArrayType.PARALLEL_THRESHOLD * 2 + 5;
+        final Tuple[] pairs = new Tuple[n];
+        final byte[][] bytes = new byte[n][];
+        final Tuple[] dynamicPairs = new Tuple[n];
+        for (int i = 0; i < n; i++) {
+            pairs[i] = new Tuple(new BigInteger(160, r), new BigInteger(255, r));
+            bytes[i] = new byte[r.nextInt(40)];
+            r.nextBytes(bytes[i]);
+            dynamicPairs[i] = new Tuple(BigInteger.valueOf(i), bytes[i]);
+        }
+        final Tuple[] staticPairs = Arrays.copyOf(pairs, 1500);
+        final Function f = new Function("f()", "((address,uint256)[],bytes[],(uint256,bytes)[],(address,uint256)[1500],uint8)");
+        final Tuple values = new Tuple(pairs, bytes, dynamicPairs, staticPairs, 9);
+        final byte[] encoded = f.getOutputTypes().encode(values).array();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final ByteBuffer bb = ByteBuffer.wrap(encoded);
+            assertEquals(values, f.decodeReturn(bb, pool));
+            assertEquals(0, bb.remaining());
+            assertEquals(f.decodeReturn(encoded), f.decodeReturn(ByteBuffer.wrap(encoded), pool));
+
+            final int bytesArrayStart = Encoding.OFFSET_TYPE.decode(ByteBuffer.wrap(encoded, 32, 32), ABIType.newUnitBuffer());
+            final int secondOffsetIdx = bytesArrayStart + 32 + 32 + 31;
+            encoded[secondOffsetIdx] += 32;
+            assertThrown(IllegalArgumentException.class, "unexpected offset", () -> f.decodeReturn(ByteBuffer.wrap(encoded), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLenientDecode() throws Throwable {
+        final TupleType tt = TupleType.parse("(string,string)");
+        final String a = "0000000000000000000000000000000000000000000000000000000000000001"
+                + "6100000000000000000000000000000000000000000000000000000000000000";
+        final String b = "0000000000000000000000000000000000000000000000000000000000000001"
+                + "6200000000000000000000000000000000000000000000000000000000000000";
+        final String zeros = "0000000000000000000000000000000000000000000000000000000000000000";
+
+        final byte[] canonical = Strings.decode(offset(0x40) + offset(0x80) + a + b);
+        assertEquals(new Tuple("a", "b"), tt.decode(canonical));
+        assertEquals(new Tuple("a", "b"), tt.decode(canonical, DecodeMode.LENIENT));
+
+        final byte[] swapped = Strings.decode(offset(0x80) + offset(0x40) + a + b);
+        assertEquals(new Tuple("a", "b"), tt.decode(swapped)); // offsets ignored
+        assertEquals(new Tuple("b", "a"), tt.decode(swapped, DecodeMode.LENIENT));
+
+        final byte[] gap = Strings.decode(offset(0x60) + offset(0xa0) + zeros + a + b);
+        assertEquals(new Tuple("a", "b"), tt.decode(gap, DecodeMode.LENIENT));
+        assertThrown(IllegalArgumentException.class, "unconsumed bytes", () -> tt.decode(gap));
+
+        final byte[] shared = Strings.decode(offset(0x40) + offset(0x40) + a);
+        assertEquals(new Tuple("a", "a"), tt.decode(shared, DecodeMode.LENIENT));
+        final Function f = new Function("f()", tt.getCanonicalType());
+        assertEquals(new Tuple("b", "a"), f.decodeReturn(swapped, DecodeMode.LENIENT));
+        assertEquals(new Tuple("a", "a"), f.decodeReturn(ByteBuffer.wrap(shared), DecodeMode.LENIENT));
+
+        final TupleType arr = TupleType.parse("(string[])");
+        final byte[] swappedArray = Strings.decode(offset(0x20) + offset(2) + offset(0x80) + offset(0x40) + a + b);
+        assertEquals(new Tuple((Object) new String[] { "b", "a" }), arr.decode(swappedArray, DecodeMode.LENIENT));
+        assertEquals(new Tuple((Object) new String[] { "a", "b" }), arr.decode(swappedArray));
+
+        final byte[] outOfBounds = Strings.decode(offset(0x40) + offset(0x4000) + a + b);
+        assertThrown(IllegalArgumentException.class, () -> tt.decode(outOfBounds, DecodeMode.LENIENT));
+
+        final int n = 16;
+        final StringBuilder block = new StringBuilder(offset(n)); // n elements whose offsets all point just past the heads
+        for (int i = 0; i < n; i++) {
+            block.append(offset(n * 32));
+        }
+        final StringBuilder leaf = new StringBuilder(offset(n));
+        for (int i = 0; i < n; i++) {
+            leaf.append(offset(i));
+        }
+        final byte[] amplified = Strings.decode(offset(0x20) + block + block + leaf);
+        final TupleType nested = TupleType.parse("(uint256[][][])");
+        assertThrown(IllegalArgumentException.class, "lenient decoding exceeds 4x the length of the encoding", () -> nested.decode(amplified, DecodeMode.LENIENT));
+    }
+
+    private static String offset(int offset) {
+        return Strings.encode(ByteBuffer.allocate(32).putInt(28, offset).array());
+    }
+
+    @Test
+    public void testUncheckedDecode() throws Throwable {
+        final TupleType tt = TupleType.parse("(uint8,bool,int64[],uint256[1],bool[])");
+        final Tuple values = new Tuple(255, true, new long[] { -1L, Long.MAX_VALUE }, new BigInteger[] { BigInteger.TEN }, new boolean[] { false, true });
+        final byte[] encoded = tt.encode(values).array();
+        assertEquals(values, tt.decode(encoded, DecodeMode.STRICT_UNCHECKED));
+        final Function f = new Function("f" + tt.getCanonicalType());
+        assertEquals(values, f.decodeCall(ByteBuffer.wrap(f.encodeCall(values).array()), DecodeMode.STRICT_UNCHECKED));
+        final Function g = new Function("g()", tt.getCanonicalType());
+        assertEquals(values, g.decodeReturn(ByteBuffer.wrap(encoded), DecodeMode.STRICT_UNCHECKED));
+
+        encoded[30] = 1; // uint8 value 256 + 255
+        encoded[63] = 2; // bool value 2
+        assertThrown(IllegalArgumentException.class, "exceeds bit limit", () -> tt.decode(encoded));
+        final Tuple unchecked = tt.decode(encoded, DecodeMode.STRICT_UNCHECKED);
+        assertEquals(511, (int) unchecked.get(0));
+        assertEquals(true, unchecked.get(1));
+    }
+
+    @Test
+    public void testStreamingDecode() throws Throwable {
+        final Random r = TestUtils.seededRandom();
+        final MessageDigest k = Function.newDefaultDigest();
+        for (int i = 0; i < 250; i++) {
+            final MonteCarloTestCase testCase = new MonteCarloTestCase(r.nextLong(), 3, 3, 3, 3, r, k);
+            final TupleType tt = testCase.function.getParamTypes();
+            final byte[] encoded = tt.encode(testCase.argsTuple).array();
+            final Tuple expected = tt.decode(encoded);
+            for (int windowLen : new int[] { 32, 33, 100, StreamingDecoder.DEFAULT_WINDOW_LEN }) {
+                assertEquals(expected, tt.decode(trickle(encoded, 1 + r.nextInt(40)), windowLen));
+            }
+            assertEquals(expected, tt.decode(new ByteArrayInputStream(encoded)));
+        }
+        final Function f = new Function("f()", "(bytes,string[],uint256[],(bool,bytes)[])");
+        final byte[] blob = new byte[100_003];
+        r.nextBytes(blob);
+        final BigInteger[] uints = new BigInteger[1000];
+        for (int i = 0; i < uints.length; i++) {
+            uints[i] = new BigInteger(255, r);
+        }
+        final Tuple values = new Tuple(blob, new String[] { "a", "bcd" }, uints, new Tuple[] { new Tuple(true, blob) });
+        final byte[] encoded = f.getOutputTypes().encode(values).array();
+        assertEquals(values, f.decodeReturn(new ByteArrayInputStream(encoded)));
+        assertEquals(values, f.decodeReturn(Strings.decoder(new ByteArrayInputStream(Strings.decode(Strings.encode(encoded), Strings.UTF_8)), Strings.HEX)));
+
+        final TupleType tt = f.getOutputTypes();
+        final List<byte[]> streamed = new ArrayList<>();
+        final Tuple partial = f.decodeReturn(trickle(encoded, 5000), 1000, (type, length, contents) -> {
+            assertEquals("bytes", type.getCanonicalType());
+            final byte[] b = new byte[streamed.isEmpty() ? length : 10]; // leave most of the second unread
+            new DataInputStream(contents).readFully(b);
+            streamed.add(b);
+        });
+        assertEquals(new Tuple(null, values.get(1), uints, new Tuple[] { new Tuple(true, null) }), partial);
+        assertArrayEquals(blob, streamed.get(0));
+        assertArrayEquals(Arrays.copyOf(blob, 10), streamed.get(1));
+
+        final List<String> all = new ArrayList<>();
+        final Tuple none = tt.decode(new ByteArrayInputStream(encoded), 0, (type, length, contents) -> {
+            final byte[] b = new byte[length];
+            new DataInputStream(contents).readFully(b);
+            assertEquals(-1, contents.read());
+            all.add(type.getCanonicalType() + ":" + length);
+        });
+        assertEquals(Arrays.asList("bytes:100003", "string:1", "string:3", "bytes:100003"), all);
+        assertEquals(new Tuple(null, new String[] { null, null }, uints, new Tuple[] { new Tuple(true, null) }), none);
+
+        final InputStream[] escaped = new InputStream[1];
+        tt.decode(new ByteArrayInputStream(encoded), 1000, (type, length, contents) -> escaped[0] = contents);
+        assertThrown(IOException.class, "stream closed", () -> escaped[0].read());
+        assertThrown(IllegalArgumentException.class, "negative stream threshold: -1", () -> tt.decode(new ByteArrayInputStream(encoded), -1, (type, length, contents) -> {}));
+        assertThrown(EOFException.class, "unexpected end of input", () -> tt.decode(new ByteArrayInputStream(Arrays.copyOf(encoded, 50_000)), 1000, (type, length, contents) -> {}));
+        assertThrown(EOFException.class, "unexpected end of input", () -> tt.decode(new ByteArrayInputStream(Arrays.copyOf(encoded, 50_000)), 1000, (type, length, contents) -> new DataInputStream(contents).readFully(new byte[length])));
+
+        assertThrown(IllegalArgumentException.class, "window too small: 31 < 32", () -> tt.decode(trickle(encoded, 7), 31));
+        assertThrown(EOFException.class, "unexpected end of input", () -> tt.decode(trickle(Arrays.copyOf(encoded, encoded.length - 1), 7), 64));
+        assertThrown(EOFException.class, "unexpected end of input", () -> tt.decode(trickle(Arrays.copyOf(encoded, 50_000), 7), 64));
+        assertThrown(IllegalArgumentException.class, "unconsumed bytes remaining", () -> tt.decode(trickle(Arrays.copyOf(encoded, encoded.length + 1), 7), 64));
+
+        // declared lengths near 2^31 must not be allocated up front
+        final byte[] hugeLen = Strings.decode(offset(0x20) + offset(Integer.MAX_VALUE) + offset(1) + offset(2));
+        for (String type : new String[] { "(bytes)", "(uint256[])", "(int64[])", "(bool[])", "(string[])", "((uint8,uint8)[])" }) {
+            final TupleType huge = TupleType.parse(type);
+            assertThrown(EOFException.class, "unexpected end of input", () -> huge.decode(new ByteArrayInputStream(hugeLen)));
+        }
+    }
+
+    /** Returns a channel which yields at most {@code maxRead} bytes per read. */
+    private static ReadableByteChannel trickle(byte[] data, int maxRead) {
+        return Channels.newChannel(new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, maxRead));
+            }
+        });
+    }
 }
@@ -0,0 +1,121 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.abi;
+
+import com.esaulpaugh.headlong.TestUtils;
+import com.esaulpaugh.headlong.util.Strings;
+import com.joemelsha.crypto.hash.Keccak;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EIP712Test {
+
+    private static final String MAIL_TYPES = "{" +
+            "\"EIP712Domain\":[{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"version\",\"type\":\"string\"}," +
+            "{\"name\":\"chainId\",\"type\":\"uint256\"},{\"name\":\"verifyingContract\",\"type\":\"address\"}]," +
+            "\"Person\":[{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"wallet\",\"type\":\"address\"}]," +
+            "\"Mail\":[{\"name\":\"from\",\"type\":\"Person\"},{\"name\":\"to\",\"type\":\"Person\"},{\"name\":\"contents\",\"type\":\"string\"}]" +
+            "}";
+
+    private static BigInteger address(String hex) {
+        return new BigInteger(hex.substring(2), 16);
+    }
+
+    @Test
+    public void testMail() {
+        final EIP712 eip712 = EIP712.parse(MAIL_TYPES);
+        assertEquals("Mail(Person from,Person to,string contents)Person(string name,address wallet)", eip712.encodeType("Mail"));
+        assertEquals("a0cedeb2dc280ba39b857546d74f5549c3a1d7bdc2dd96bf881f76108e23dac2", Strings.encode(eip712.typeHash("Mail")));
+
+        final Tuple domain = new Tuple("Ether Mail", "1", BigInteger.ONE, address("0xCcCCccccCCCCcCCCCCCcCcCccCcCCCcCcccccccC"));
+        final Tuple mail = new Tuple(
+                new Tuple("Cow", address("0xCD2a3d9F938E13CD947Ec05AbC7FE734Df8DD826")),
+                new Tuple("Bob", address("0xbBbBBBBbbBBBbbbBbbBbbbbBBbBbbbbBbBbbBBbB")),
+                "Hello, Bob!"
+        );
+        assertEquals("f2cee375fa42b42143804025fc449deafd50cc031ca257e0b194a650a912090f", Strings.encode(eip712.hashStruct("EIP712Domain", domain)));
+        assertEquals("c52c0ee5d84264471806290a3f2c4cecfc5490626bf912d01f240d7a274b371e", Strings.encode(eip712.hashStruct("Mail", mail)));
+        assertEquals("be609aee343fb3c4b28e1df9e632fca64fcfaede20f02e86244efddf30957bd2", Strings.encode(eip712.hashTypedData(domain, "Mail", mail)));
+        assertEquals("be609aee343fb3c4b28e1df9e632fca64fcfaede20f02e86244efddf30957bd2", Strings.encode(eip712.hashTypedData(domain, "Mail", mail)));
+        final byte[] separator = eip712.domainSeparator(domain);
+        assertEquals("f2cee375fa42b42143804025fc449deafd50cc031ca257e0b194a650a912090f", Strings.encode(separator));
+        assertEquals("be609aee343fb3c4b28e1df9e632fca64fcfaede20f02e86244efddf30957bd2", Strings.encode(eip712.hashTypedData(separator, "Mail", mail)));
+        final Tuple otherDomain = new Tuple("Ether Mail", "2", BigInteger.ONE, address("0xCcCCccccCCCCcCCCCCCcCcCccCcCCCcCcccccccC"));
+        assertArrayEquals(eip712.hashStruct("EIP712Domain", otherDomain), eip712.domainSeparator(otherDomain));
+        assertEquals("(string,address)", eip712.getTupleType("Person").getCanonicalType());
+    }
+
+    @Test
+    public void testArrays() {
+        final EIP712 eip712 = EIP712.parse("{" +
+                "\"Order\":[{\"name\":\"items\",\"type\":\"Item[]\"},{\"name\":\"ids\",\"type\":\"uint64[2]\"},{\"name\":\"tag\",\"type\":\"bytes4\"},{\"name\":\"data\",\"type\":\"bytes\"}]," +
+                "\"Item\":[{\"name\":\"sku\",\"type\":\"uint32\"},{\"name\":\"ok\",\"type\":\"bool\"}]" +
+                "}");
+        assertEquals("Order(Item[] items,uint64[2] ids,bytes4 tag,bytes data)Item(uint32 sku,bool ok)", eip712.encodeType("Order"));
+        final Tuple[] items = new Tuple[] { new Tuple(7L, true), new Tuple(8L, false) };
+        final Tuple order = new Tuple(items, new BigInteger[] { BigInteger.ONE, BigInteger.TEN }, new byte[] { 1, 2, 3, 4 }, new byte[] { 9, 9 });
+
+        final Keccak k = new Keccak(256);
+        final ByteBuffer itemHashes = ByteBuffer.allocate(64);
+        for (Tuple item : items) {
+            itemHashes.put(k.digest(concat(eip712.typeHash("Item"), eip712.getTupleType("Item").encode(item).array())));
+        }
+        final ByteBuffer expected = ByteBuffer.allocate(32 * 5);
+        expected.put(eip712.typeHash("Order"));
+        expected.put(k.digest(itemHashes.array()));
+        expected.put(k.digest(TupleType.parse("(uint64,uint64)").encode(new Tuple(BigInteger.ONE, BigInteger.TEN)).array()));
+        expected.put(TupleType.parse("(bytes4)").encode(new Tuple((Object) new byte[] { 1, 2, 3, 4 })).array());
+        expected.put(k.digest(new byte[] { 9, 9 }));
+        assertArrayEquals(k.digest(expected.array()), eip712.hashStruct("Order", order));
+    }
+
+    @Test
+    public void testPrimitiveArrays() {
+        final EIP712 eip712 = EIP712.parse("{\"P\":[{\"name\":\"a\",\"type\":\"int32[]\"},{\"name\":\"b\",\"type\":\"int64[2]\"},{\"name\":\"c\",\"type\":\"bool[]\"}]}");
+        final Tuple p = new Tuple(new int[] { -1, 5 }, new long[] { Long.MIN_VALUE, 7L }, new boolean[] { true, false, true });
+        final Keccak k = new Keccak(256);
+        final ByteBuffer expected = ByteBuffer.allocate(32 * 4);
+        expected.put(eip712.typeHash("P"));
+        expected.put(k.digest(TupleType.parse("(int32,int32)").encode(new Tuple(-1, 5)).array()));
+        expected.put(k.digest(TupleType.parse("(int64,int64)").encode(new Tuple(Long.MIN_VALUE, 7L)).array()));
+        expected.put(k.digest(TupleType.parse("(bool,bool,bool)").encode(new Tuple(true, false, true)).array()));
+        assertArrayEquals(k.digest(expected.array()), eip712.hashStruct("P", p));
+    }
+
+    @Test
+    public void testErrors() throws Throwable {
+        TestUtils.assertThrown(IllegalArgumentException.class, "recursive struct: A",
+                () -> EIP712.parse("{\"A\":[{\"name\":\"b\",\"type\":\"B\"}],\"B\":[{\"name\":\"a\",\"type\":\"A[]\"}]}"));
+        TestUtils.assertThrown(IllegalArgumentException.class, "unrecognized type: Nope",
+                () -> EIP712.parse("{\"A\":[{\"name\":\"n\",\"type\":\"Nope\"}]}"));
+        final EIP712 eip712 = EIP712.parse(MAIL_TYPES);
+        TestUtils.assertThrown(IllegalArgumentException.class, "unknown struct: Letter", () -> eip712.typeHash("Letter"));
+        TestUtils.assertThrown(IllegalArgumentException.class, "tuple length mismatch",
+                () -> eip712.hashStruct("Person", new Tuple("Cow")));
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        final byte[] out = new byte[a.length + b.length];
+        System.arraycopy(a, 0, out, 0, a.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+}
@@ -22,12 +22,16 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.opentest4j.AssertionFailedError;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 import static com.esaulpaugh.headlong.TestUtils.assertThrown;
@@ -35,6 +39,7 @@ import static com.esaulpaugh.headlong.abi.TypeFactory.EMPTY_PARAMETER;
 import static com.esaulpaugh.headlong.abi.UnitType.UNIT_LENGTH_BYTES;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EncodeTest {
 
@@ -330,4 +335,123 @@ public class EncodeTest {
                 xor
         );
     }
+
+    @Test
+    public void testParallelEncode() {
+        final Random r = TestUtils.seededRandom();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final int n = ArrayType.PARALLEL_THRESHOLD * 3 + 7;
+            final byte[][] bytes = new byte[n][];
+            final String[] strings = new String[n];
+            final Tuple[] tuples = new Tuple[n];
+            final BigInteger[][] uints = new BigInteger[n][];
+            final Tuple[] staticTuples = new Tuple[n];
+            for (int i = 0; i < n; i++) {
+                bytes[i] = new byte[r.nextInt(70)];
+                r.nextBytes(bytes[i]);
+                strings[i] = Strings.encode(bytes[i], Strings.BASE_64_URL_SAFE);
+                tuples[i] = new Tuple(new BigInteger(160, r), new BigInteger(255, r), bytes[i]);
+                uints[i] = new BigInteger[] { BigInteger.valueOf(i), BigInteger.valueOf(r.nextInt() & Integer.MAX_VALUE) };
+                staticTuples[i] = new Tuple(new BigInteger(160, r), r.nextBoolean());
+            }
+            final Function f = new Function("airdrop(bytes[],uint8,string[],(address,uint256,bytes)[],uint256[2][],(address,bool)[])");
+            final Tuple args = new Tuple(bytes, 7, strings, tuples, uints, staticTuples);
+            final ByteBuffer serial = f.encodeCall(args);
+            final ByteBuffer parallel = f.encodeCall(args, pool);
+            assertArrayEquals(serial.array(), parallel.array());
+            assertEquals(serial.position(), parallel.position());
+            assertEquals(args, f.decodeCall(parallel.array()));
+
+            final TupleType small = TupleType.parse("(bytes[])");
+            final Tuple smallArgs = new Tuple((Object) new byte[][] { new byte[3] });
+            assertArrayEquals(small.encode(smallArgs).array(), small.encode(smallArgs, pool).array());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncodeTrusted() {
+        final Random r = TestUtils.seededRandom();
+        final MessageDigest k = Function.newDefaultDigest();
+        for (int i = 0; i < 250; i++) {
+            final MonteCarloTestCase testCase = new MonteCarloTestCase(r.nextLong(), 3, 3, 3, 3, r, k);
+            final Function f = testCase.function;
+            final Tuple args = testCase.argsTuple;
+            assertArrayEquals(f.encodeCall(args).array(), f.encodeCallTrusted(args).array());
+            final TupleType tt = f.getParamTypes();
+            assertArrayEquals(tt.encode(args).array(), tt.encodeTrusted(args).array());
+            final ByteBuffer dest = ByteBuffer.allocate(tt.measureEncodedLength(args));
+            tt.encodeTrusted(args, dest);
+            assertArrayEquals(tt.encode(args).array(), dest.array());
+        }
+    }
+
+    @Test
+    public void testStreamingEncode() throws Throwable {
+        final Random r = TestUtils.seededRandom();
+        final MessageDigest k = Function.newDefaultDigest();
+        for (int i = 0; i < 250; i++) {
+            final MonteCarloTestCase testCase = new MonteCarloTestCase(r.nextLong(), 3, 3, 3, 3, r, k);
+            final Function f = testCase.function;
+            final Tuple args = testCase.argsTuple;
+            final byte[] expected = f.encodeCall(args).array();
+            for (int scratchLen : new int[] { 32, 33, 100, StreamingEncoder.DEFAULT_SCRATCH_LEN }) {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                assertEquals(expected.length, f.encodeCall(args, Channels.newChannel(baos), scratchLen));
+                assertArrayEquals(expected, baos.toByteArray());
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            assertEquals(expected.length - Function.SELECTOR_LEN, f.getParamTypes().encode(args, baos));
+            assertArrayEquals(Arrays.copyOfRange(expected, Function.SELECTOR_LEN, expected.length), baos.toByteArray());
+        }
+        final Function big = new Function("deploy(bytes,string[],uint256[])");
+        final byte[] blob = new byte[100_003];
+        r.nextBytes(blob);
+        final Tuple args = new Tuple(blob, new String[] { "a", "bcd" }, new BigInteger[] { BigInteger.ONE, BigInteger.TEN });
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        big.encodeCall(args, baos);
+        assertArrayEquals(big.encodeCall(args).array(), baos.toByteArray());
+        assertThrown(ILLEGAL, "scratch buffer too small: 31 < 32", () -> big.encodeCall(args, Channels.newChannel(baos), 31));
+    }
+
+    @Test
+    public void testEncodingCache() throws Throwable {
+        final EncodingCache cache = new EncodingCache(2);
+        final Function balanceOf = new Function("balanceOf(address)");
+        final Function transfer = new Function("transfer(address,uint256)");
+        final Tuple a = new Tuple(BigInteger.valueOf(0xaaL));
+        final Tuple b = new Tuple(BigInteger.valueOf(0xbbL));
+
+        final ByteBuffer first = cache.encodeCall(balanceOf, a);
+        assertTrue(first.isReadOnly());
+        assertEquals(0, first.position());
+        final byte[] expected = balanceOf.encodeCall(a).array();
+        assertArrayEquals(expected, remaining(first));
+        assertArrayEquals(expected, remaining(cache.encodeCall(balanceOf, new Tuple(BigInteger.valueOf(0xaaL)))));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        cache.encodeCall(balanceOf, b);
+        cache.encodeCall(balanceOf, a); // a is now most recently used
+        cache.encodeCall(transfer, new Tuple(BigInteger.ONE, BigInteger.TEN)); // evicts b
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.encodeCall(balanceOf, a);
+        assertEquals(3, cache.getHits());
+        cache.encodeCall(balanceOf, b);
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertThrown(ILLEGAL, "maxEntries must be positive", () -> new EncodingCache(0));
+    }
+
+    private static byte[] remaining(ByteBuffer bb) {
+        final byte[] out = new byte[bb.remaining()];
+        bb.duplicate().get(out);
+        return out;
+    }
 }
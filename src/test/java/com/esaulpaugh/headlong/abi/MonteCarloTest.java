@@ -30,6 +30,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.ForkJoinPool;
@@ -37,6 +40,8 @@ import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class MonteCarloTest {
 
     private static final int N = 400_000;
@@ -66,6 +71,22 @@ public class MonteCarloTest {
         System.out.println((workPerProcessor * i) + " done");
     }
 
+    @Test
+    public void testBenchmarkCorpus() throws IOException {
+        final List<MonteCarloTestCase> cases = CorpusGenerator.generate(5L, 300);
+        final StringWriter sw = new StringWriter();
+        BenchmarkCorpus.write(CorpusGenerator.toCalls(cases), sw);
+        final List<BenchmarkCorpus.Call> calls = BenchmarkCorpus.read(new StringReader(sw.toString()));
+        assertEquals(cases.size(), calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            assertEquals(cases.get(i).function, calls.get(i).function);
+            assertEquals(cases.get(i).argsTuple, calls.get(i).args);
+        }
+        final StringWriter again = new StringWriter();
+        CorpusGenerator.write(5L, 300, again);
+        assertEquals(sw.toString(), again.toString()); // seeded
+    }
+
     private static void doMonteCarlo(long threadSeed, int n) {
 
         StringBuilder log = new StringBuilder();
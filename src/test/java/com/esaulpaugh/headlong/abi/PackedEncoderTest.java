@@ -19,13 +19,19 @@ import com.esaulpaugh.headlong.TestUtils;
 import com.esaulpaugh.headlong.abi.util.BizarroIntegers;
 import com.esaulpaugh.headlong.abi.util.Uint;
 import com.esaulpaugh.headlong.util.Strings;
+import com.joemelsha.crypto.hash.Keccak;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -48,6 +54,7 @@ public class PackedEncoderTest {
         Tuple test = Tuple.of(new BigInteger[] { BigInteger.TEN }, new Tuple[] { Tuple.of(BigInteger.TEN, new BigDecimal(BigInteger.TEN, 47)) });
         ByteBuffer bb = tupleType.encodePacked(test);
         TestUtils.assertThrown(IllegalArgumentException.class, "multiple dynamic elements", () -> PackedDecoder.decode(tupleType, bb.array()));
+        assertEquals(test, PackedDecoder.decode(tupleType, bb.array(), new int[] { 1, 1 }));
 
         TupleType _tt = TupleType.parse("(int144[][1])");
         Tuple _test = Tuple.of((Object) new BigInteger[][] { new BigInteger[] { } });
@@ -296,4 +303,85 @@ public class PackedEncoderTest {
         assertTrue(resultL < 0);
         assertEquals(expectedL, resultL);
     }
+
+    @Test
+    public void testHashPacked() {
+        final Random r = TestUtils.seededRandom();
+        final MessageDigest k = new Keccak(256);
+        for (int i = 0; i < 250; i++) {
+            final MonteCarloTestCase testCase = new MonteCarloTestCase(r.nextLong(), 3, 3, 3, 3, r, k);
+            final TupleType tt = testCase.function.getParamTypes();
+            final byte[] expected = k.digest(tt.encodePacked(testCase.argsTuple).array());
+            assertArrayEquals(expected, tt.hashPacked(testCase.argsTuple, k));
+            assertArrayEquals(expected, tt.hashPacked(testCase.argsTuple));
+        }
+
+        final TupleType leaf = TupleType.parse("(address,uint256)");
+        final Tuple values = new Tuple(new BigInteger("7f00000000000000000000000000000000000001", 16), BigInteger.TEN);
+        assertArrayEquals(k.digest(Strings.decode("7f00000000000000000000000000000000000001000000000000000000000000000000000000000000000000000000000000000a")),
+                leaf.hashPacked(values));
+
+        final TupleType big = TupleType.parse("(bytes,int64[],(bool,string)[],int72)");
+        final byte[] blob = new byte[10_000];
+        r.nextBytes(blob);
+        final long[] longs = new long[500];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = r.nextLong();
+        }
+        final Tuple[] pairs = new Tuple[100];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new Tuple(r.nextBoolean(), "pair" + i);
+        }
+        final Tuple bigValues = new Tuple(blob, longs, pairs, BigInteger.valueOf(-1L));
+        assertArrayEquals(k.digest(big.encodePacked(bigValues).array()), big.hashPacked(bigValues));
+    }
+
+    @Test
+    public void testLengthHints() throws Throwable {
+        final Random r = TestUtils.seededRandom();
+        final MessageDigest k = new Keccak(256);
+        for (int i = 0; i < 250; i++) {
+            final MonteCarloTestCase testCase = new MonteCarloTestCase(r.nextLong(), 3, 3, 3, 3, r, k);
+            final TupleType tt = testCase.function.getParamTypes();
+            final List<Integer> lengths = new ArrayList<>();
+            collectLengths(tt, testCase.argsTuple, lengths);
+            final int[] hints = lengths.stream().mapToInt(Integer::intValue).toArray();
+            assertEquals(testCase.argsTuple, PackedDecoder.decode(tt, tt.encodePacked(testCase.argsTuple).array(), hints));
+        }
+
+        final TupleType tt = TupleType.parse("(string,uint16,bytes[],bool)");
+        final Tuple values = new Tuple("order", 7, new byte[][] { new byte[] { 1, 2 }, new byte[0], new byte[] { 3 } }, true);
+        final byte[] packed = tt.encodePacked(values).array();
+        final byte[] padded = new byte[packed.length + 4];
+        System.arraycopy(packed, 0, padded, 2, packed.length);
+        assertEquals(values, PackedDecoder.decode(tt, padded, 2, 2 + packed.length, new int[] { 5, 3, 2, 0, 1 }));
+
+        TestUtils.assertThrown(IllegalArgumentException.class, "not enough length hints: 4", () -> PackedDecoder.decode(tt, packed, new int[] { 5, 3, 2, 0 }));
+        TestUtils.assertThrown(IllegalArgumentException.class, "unused length hints: 1 remaining", () -> PackedDecoder.decode(tt, packed, new int[] { 5, 3, 2, 0, 1, 9 }));
+        TestUtils.assertThrown(IllegalArgumentException.class, "negative length hint: -1", () -> PackedDecoder.decode(tt, packed, new int[] { -1, 3, 2, 0, 1 }));
+        TestUtils.assertThrown(IllegalArgumentException.class, "unconsumed bytes: 1 remaining", () -> PackedDecoder.decode(tt, packed, new int[] { 5, 3, 2, 0, 0 }));
+        TestUtils.assertThrown(IllegalArgumentException.class, "encoding too short", () -> PackedDecoder.decode(tt, packed, new int[] { 5, 3, 2, 0, 3 }));
+    }
+
+    private static void collectLengths(ABIType<?> type, Object value, List<Integer> lengths) {
+        if (type instanceof TupleType) {
+            final TupleType tt = (TupleType) type;
+            for (int i = 0; i < tt.elementTypes.length; i++) {
+                collectLengths(tt.elementTypes[i], ((Tuple) value).elements[i], lengths);
+            }
+        } else if (type instanceof ArrayType) {
+            final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+            final int len = value instanceof String
+                    ? Strings.decode((String) value, Strings.UTF_8).length
+                    : java.lang.reflect.Array.getLength(value);
+            if (arrayType.length == ArrayType.DYNAMIC_LENGTH) {
+                lengths.add(len);
+            }
+            if (value instanceof Object[]) {
+                for (Object e : (Object[]) value) {
+                    collectLengths(arrayType.elementType, e, lengths);
+                }
+            }
+        }
+    }
 }
@@ -21,6 +21,8 @@ import com.esaulpaugh.headlong.util.Strings;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,6 +36,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 import static com.esaulpaugh.headlong.TestUtils.CustomRunnable;
@@ -44,6 +47,7 @@ import static com.esaulpaugh.headlong.util.Strings.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RLPDecoderTest {
@@ -616,4 +620,185 @@ public class RLPDecoderTest {
 
         System.out.println(joined);
     }
+
+    @Test
+    public void testIndex() throws Throwable {
+        final Random r = TestUtils.seededRandom();
+        final Object[] raw = new Object[500];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = i % 3 == 0 ? new Object[] { new byte[r.nextInt(70)], Integers.toBytes(i) } : new byte[r.nextInt(100)];
+        }
+        final byte[] sequence = RLPEncoder.encodeSequentially(raw);
+        final List<RLPItem> expected = RLP_STRICT.collectAll(sequence);
+
+        final RLPIndex index = RLP_STRICT.index(sequence);
+        assertEquals(raw.length, index.size());
+        for (int n : new int[] { 499, 0, 250, 3, 1 }) {
+            assertEquals(expected.get(n), index.get(n));
+            assertEquals(expected.get(n).index, index.offsetOf(n));
+        }
+        assertThrown(IndexOutOfBoundsException.class, "500 not in [0,500)", () -> index.get(500));
+        assertThrown(IndexOutOfBoundsException.class, "-1 not in [0,500)", () -> index.offsetOf(-1));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        index.writeTo(baos);
+        final byte[] sidecar = baos.toByteArray();
+        final RLPIndex loaded = RLPIndex.readFrom(new ByteArrayInputStream(sidecar), RLP_STRICT, sequence);
+        assertEquals(index.size(), loaded.size());
+        assertEquals(expected.get(123), loaded.get(123));
+        assertThrown(IllegalArgumentException.class, "index extends past buffer", () -> RLPIndex.readFrom(new ByteArrayInputStream(sidecar), RLP_STRICT, new byte[sequence.length - 1]));
+        final byte[] gappy = new byte[] { 0x52, 0x4c, 0x50, 0x49, 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 3 };
+        final RLPIndex mismatched = RLPIndex.readFrom(new ByteArrayInputStream(gappy), RLP_STRICT, new byte[] { 0x01, 0x02, 0x03 });
+        assertThrown(IllegalArgumentException.class, "item @ 0 ends at 1, not at the next offset 2", () -> mismatched.get(0));
+        final byte[] hugeCount = Arrays.copyOf(gappy, 8);
+        hugeCount[4] = 0x7f;
+        assertThrown(IllegalArgumentException.class, "bad offset count: 2130706435", () -> RLPIndex.readFrom(new ByteArrayInputStream(hugeCount), RLP_STRICT, sequence));
+        sidecar[0] = 0;
+        assertThrown(IllegalArgumentException.class, "not an RLP index", () -> RLPIndex.readFrom(new ByteArrayInputStream(sidecar), RLP_STRICT, sequence));
+
+        assertEquals(0, RLP_STRICT.index(new byte[0]).size());
+        final byte[] truncated = Arrays.copyOf(sequence, sequence.length - 1);
+        assertThrown(IllegalArgumentException.class, () -> RLP_STRICT.index(truncated));
+        final byte[] badNested = new byte[] { (byte) 0xc2, (byte) 0x81, 0x00 };
+        assertEquals(3, RLP_STRICT.wrap(badNested).endIndex); // only the top-level prefix is checked
+        assertThrown(IllegalArgumentException.class, "invalid rlp for single byte @ 1", () -> RLP_STRICT.index(badNested));
+        assertEquals(1, RLP_LENIENT.index(badNested).size());
+        final RLPIndex sub = RLPIndex.build(RLP_STRICT, sequence, expected.get(10).index, expected.get(20).index);
+        assertEquals(10, sub.size());
+        assertEquals(expected.get(19), sub.get(9));
+    }
+
+    @Test
+    public void testValidate() throws Throwable {
+        final Random r = TestUtils.seededRandom();
+        final Object[] nested = new Object[] {
+                new byte[0], new byte[] { 0x7f }, new byte[] { (byte) 0x80 }, new byte[70],
+                new Object[] { new Object[0], new Object[] { new byte[60], new Object[] { new byte[] { 1, 2 } } } },
+                new Object[60]
+        };
+        Arrays.fill((Object[]) nested[5], new byte[] { 5 });
+        final byte[] valid = RLPEncoder.encodeAsList(nested);
+        assertEquals(valid.length, RLP_STRICT.validate(valid, 0, valid.length));
+        assertEquals(1, RLP_STRICT.validate(new byte[] { 0x05, 0x06 }, 0, 2));
+
+        final int depth = 50_000; // too deep to traverse recursively
+        final int[] lens = new int[depth + 1];
+        lens[0] = 1;
+        for (int k = 1; k <= depth; k++) {
+            lens[k] = RLPEncoder.prefixLength(lens[k - 1]) + lens[k - 1];
+        }
+        final byte[] deep = new byte[lens[depth]];
+        int p = 0;
+        for (int k = depth; k >= 1; k--) {
+            final int dataLen = lens[k - 1];
+            if(dataLen < DataType.MIN_LONG_DATA_LEN) {
+                deep[p++] = (byte) (0xc0 + dataLen);
+            } else {
+                deep[p++] = (byte) (0xf7 + Integers.len(dataLen));
+                p += Integers.putInt(dataLen, deep, p);
+            }
+        }
+        deep[p] = (byte) 0xc0;
+        assertEquals(deep.length, RLP_STRICT.validate(deep, 0, deep.length));
+
+        for (int i = 0; i < 100_000; i++) {
+            final byte[] mutated = valid.clone();
+            for (int j = 1 + r.nextInt(3); j > 0; j--) {
+                mutated[r.nextInt(mutated.length)] = (byte) r.nextInt();
+            }
+            final int end = r.nextInt(8) == 0 ? r.nextInt(mutated.length) + 1 : mutated.length;
+            for (RLPDecoder decoder : new RLPDecoder[] { RLP_STRICT, RLP_LENIENT }) {
+                assertEquals(outcome(() -> wrapDeep(decoder, mutated, 0, end)), outcome(() -> decoder.validate(mutated, 0, end)));
+            }
+        }
+    }
+
+    @Test
+    public void testLimits() throws Throwable {
+        assertThrown(IllegalArgumentException.class, "negative limit: -1", () -> RLPDecoder.builder().maxDepth(-1));
+        assertThrown(IllegalArgumentException.class, "negative limit: -2", () -> RLPDecoder.builder().maxTotalBytes(-2L));
+
+        final byte[] list = RLPEncoder.encodeAsList(new byte[3], new Object[] { new byte[60], new Object[] { new byte[] { 1 } } });
+        final RLPDecoder unlimited = RLPDecoder.builder().build();
+        assertEquals(RLP_STRICT.wrap(list), unlimited.wrap(list));
+        assertTrue(RLPDecoder.builder().lenient(true).build().lenient);
+
+        final RLPDecoder depth2 = RLPDecoder.builder().maxDepth(2).build();
+        assertThrown(IllegalArgumentException.class, "nesting depth exceeds limit: 3 > 2 @ 70", () -> depth2.wrap(list));
+        assertThrown(IllegalArgumentException.class, "nesting depth exceeds limit: 1 > 0 @ 0", () -> RLPDecoder.builder().maxDepth(0).build().wrapList(list));
+        assertEquals(RLP_STRICT.wrap(list), RLPDecoder.builder().maxDepth(3).build().wrap(list));
+        assertEquals(0, RLPDecoder.builder().maxDepth(0).build().wrapString(new byte[] { (byte) 0x80 }).dataLength);
+
+        assertThrown(IllegalArgumentException.class, "item data length exceeds limit: 60 > 59 for element @ 8", () -> RLPDecoder.builder().maxItemLength(59).build().wrap(list, 8));
+        assertEquals(RLP_STRICT.wrap(list), RLPDecoder.builder().maxItemLength(70).build().wrap(list));
+        assertThrown(IllegalArgumentException.class, "item data length exceeds limit: 70 > 69 for element @ 0", () -> RLPDecoder.builder().maxItemLength(69).build().wrap(list, 0));
+
+        final RLPDecoder twoElements = RLPDecoder.builder().maxListElements(2).build();
+        assertEquals(2, twoElements.wrapList(list).elements(twoElements).size());
+        assertThrown(IllegalArgumentException.class, "list element count exceeds limit: 3 > 2 for element @ 3", () -> twoElements.wrap(RLPEncoder.encodeAsList(new byte[0], new byte[0], new Object[0])));
+
+        final byte[] sequence = RLPEncoder.encodeSequentially(new byte[] { 1 }, new byte[] { 2 }, new byte[] { 3 });
+        final RLPDecoder twoBytes = RLPDecoder.builder().maxTotalBytes(2).build();
+        assertEquals(2, twoBytes.collectN(sequence, 2).size());
+        assertThrown(IllegalArgumentException.class, "total bytes exceed limit: 3 > 2", () -> twoBytes.collectAll(sequence));
+        assertThrown(IllegalArgumentException.class, "total bytes exceed limit: 3 > 2", () -> twoBytes.index(sequence));
+        final Iterator<RLPItem> iter = twoBytes.sequenceIterator(sequence);
+        iter.next();
+        iter.next();
+        assertThrown(IllegalArgumentException.class, "total bytes exceed limit: 3 > 2", iter::hasNext);
+        assertThrown(IllegalArgumentException.class, "total bytes exceed limit: 3 > 2", () -> twoBytes.stream(sequence).collect());
+        assertEquals(2, twoBytes.stream(Arrays.copyOf(sequence, 2)).collect().size());
+
+        final RLPDecoder short59 = RLPDecoder.builder().maxItemLength(59).build();
+        final RLPList strictList = RLP_STRICT.wrapList(list);
+        assertThrown(IllegalArgumentException.class, "item data length exceeds limit: 70 > 59 for element @ 0", () -> strictList.elements(short59));
+        assertThrown(IllegalArgumentException.class, "item data length exceeds limit: 70 > 59 for element @ 0", () -> strictList.iterator(short59));
+        final RLPList built = RLPList.withElements(Arrays.asList(RLP_STRICT.wrap(new byte[] { (byte) 0x81, (byte) 0x80 }), RLP_STRICT.wrap(new byte[] { (byte) 0xc0 })));
+        assertEquals(2, built.elements(twoElements).size());
+        assertThrown(IllegalArgumentException.class, "nesting depth exceeds limit: 2 > 1 @ 3", () -> built.elements(RLPDecoder.builder().maxDepth(1).build()));
+
+        Object nested = new Object[0];
+        for (int i = 0; i < 1000; i++) {
+            nested = new Object[] { nested };
+        }
+        final RLPDecoder big = RLPDecoder.builder().maxItemLength(1 << 20).build();
+        RLPItem deep = big.wrap(RLPEncoder.encodeAsList((Object[]) nested));
+        int depth = 0;
+        while (deep.dataLength > 0) {
+            assertSame(big, deep.validatedBy); // descending needs no further checks
+            deep = depth++ % 2 == 0 ? deep.asRLPList().elements(big).get(0) : deep.asRLPList().iterator(big).next();
+        }
+        assertEquals(1000, depth);
+        assertThrown(IllegalArgumentException.class, "nesting depth exceeds limit: 3 > 2 @ 70", () -> RLP_STRICT.wrapList(list).iterator(depth2));
+
+        final byte[] mixed = RLPEncoder.encodeSequentially(new byte[3], new byte[60], new byte[2]);
+        final ByteArrayOutputStream sidecar = new ByteArrayOutputStream();
+        RLP_STRICT.index(mixed).writeTo(sidecar);
+        final RLPIndex loaded = RLPIndex.readFrom(new ByteArrayInputStream(sidecar.toByteArray()), short59, mixed);
+        assertEquals(3, loaded.get(0).dataLength);
+        assertThrown(IllegalArgumentException.class, "item data length exceeds limit: 60 > 59 for element @ 4", () -> loaded.get(1));
+        assertThrown(IllegalArgumentException.class, "total bytes exceed limit: 69 > 68", () -> RLPIndex.readFrom(new ByteArrayInputStream(sidecar.toByteArray()), RLPDecoder.builder().maxTotalBytes(68).build(), mixed).get(2));
+
+        final byte[] claimsTooMuch = new byte[] { (byte) 0xb9, 0x10, 0x00 }; // 4096-byte string, truncated
+        assertFalse(RLP_STRICT.stream(claimsTooMuch).iterator().hasNext());
+        assertThrown(IllegalArgumentException.class, "item data length exceeds limit: 4096 > 1024 for element @ 0", () -> RLPDecoder.builder().maxItemLength(1024).build().stream(claimsTooMuch).iterator().hasNext());
+    }
+
+    private static int wrapDeep(RLPDecoder decoder, byte[] buffer, int index, int containerEnd) {
+        final RLPItem item = decoder.wrap(buffer, index, containerEnd);
+        if(item.isList()) {
+            for (int i = item.dataIndex; i < item.endIndex; ) {
+                i = wrapDeep(decoder, buffer, i, item.endIndex);
+            }
+        }
+        return item.endIndex;
+    }
+
+    private static String outcome(IntSupplier s) {
+        try {
+            return String.valueOf(s.getAsInt());
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
 }
@@ -0,0 +1,198 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.rlp;
+
+import com.esaulpaugh.headlong.TestUtils;
+import com.esaulpaugh.headlong.util.Strings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.esaulpaugh.headlong.util.Strings.HEX;
+import static com.esaulpaugh.headlong.util.Strings.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrieNodeTest {
+
+    private static byte[] utf8(String s) {
+        return Strings.decode(s, UTF_8);
+    }
+
+    private static byte[] suffix(String key, int from) {
+        final byte[] nibbles = TrieNode.nibbles(utf8(key));
+        return Arrays.copyOfRange(nibbles, from, nibbles.length);
+    }
+
+    @Test
+    public void testDogs() {
+        final TrieNode puppy = new TrieNode.Leaf(suffix("dog", 6), utf8("puppy"));
+        assertEquals("cb8420646f67857075707079", Strings.encode(new TrieNode.Leaf(TrieNode.nibbles(utf8("dog")), utf8("puppy")).encoding()));
+
+        final TrieNode cat = new TrieNode.Leaf(suffix("dogglesworth", 7), utf8("cat"));
+        final TrieNode[] dogChildren = new TrieNode[TrieNode.BRANCH_WIDTH];
+        dogChildren[6] = cat;
+        final TrieNode dog = new TrieNode.Branch(dogChildren, utf8("puppy"));
+
+        final TrieNode[] rootChildren = new TrieNode[TrieNode.BRANCH_WIDTH];
+        rootChildren[5] = new TrieNode.Leaf(suffix("doe", 6), utf8("reindeer"));
+        rootChildren[7] = dog;
+        final TrieNode root = new TrieNode.Extension(Arrays.copyOf(TrieNode.nibbles(utf8("dog")), 5), new TrieNode.Branch(rootChildren, Strings.EMPTY_BYTE_ARRAY));
+
+        assertEquals("8aad789dff2f538bca5d8ea56e8abe10f4c7ba3a5dea95fea4cd6e7c3a1168d3", Strings.encode(root.hash()));
+        assertTrue(cat.encoding().length < TrieNode.HASH_LEN);
+        assertArrayEquals(cat.encoding(), cat.reference());
+        assertEquals(TrieNode.HASH_LEN, root.reference().length);
+        assertTrue(puppy.encoding().length < TrieNode.HASH_LEN);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final byte[] longValue = new byte[70];
+        Arrays.fill(longValue, (byte) 0x99);
+        final TrieNode leafOdd = new TrieNode.Leaf(new byte[] { 1, 2, 3 }, longValue);
+        final TrieNode leafEven = new TrieNode.Leaf(new byte[0], new byte[] { 0x7f });
+        final TrieNode[] children = new TrieNode[TrieNode.BRANCH_WIDTH];
+        children[0] = leafOdd;
+        children[15] = leafEven;
+        final TrieNode branch = new TrieNode.Branch(children, utf8("v"));
+        final TrieNode ext = new TrieNode.Extension(new byte[] { 0xa, 0xb, 0xc, 0xd }, branch);
+
+        for (TrieNode node : new TrieNode[] { leafOdd, leafEven, branch, ext }) {
+            final TrieNode decoded = TrieNode.decode(node.encoding());
+            assertEquals(node.getClass(), decoded.getClass());
+            assertArrayEquals(node.encoding(), decoded.encoding());
+            assertArrayEquals(node.hash(), decoded.hash());
+        }
+        final TrieNode.Leaf leaf = (TrieNode.Leaf) TrieNode.decode(leafOdd.encoding());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, leaf.getPath());
+        assertArrayEquals(longValue, leaf.getValue());
+
+        final TrieNode.Branch b = (TrieNode.Branch) TrieNode.decode(branch.encoding());
+        assertArrayEquals(leafOdd.hash(), b.getChildReference(0));
+        assertArrayEquals(leafEven.encoding(), b.getChildReference(15));
+        assertEquals(0, b.getChildReference(7).length);
+        assertArrayEquals(utf8("v"), b.getValue());
+
+        final TrieNode.Extension e = (TrieNode.Extension) TrieNode.decode(ext.encoding());
+        assertArrayEquals(new byte[] { 0xa, 0xb, 0xc, 0xd }, e.getPath());
+        assertArrayEquals(branch.hash(), e.getChildReference());
+    }
+
+    @Test
+    public void testInvalid() throws Throwable {
+        TestUtils.assertThrown(IllegalArgumentException.class, "not a nibble: 16", () -> new TrieNode.Leaf(new byte[] { 16 }, new byte[0]));
+        TestUtils.assertThrown(IllegalArgumentException.class, "invalid node: 3 elements", () -> TrieNode.decode(Strings.decode("c3010203", HEX)));
+        TestUtils.assertThrown(IllegalArgumentException.class, "invalid hex-prefix flags: 4", () -> TrieNode.decode(Strings.decode("c24001", HEX)));
+        TestUtils.assertThrown(IllegalArgumentException.class, "invalid hex-prefix flags: 0", () -> TrieNode.decode(Strings.decode("c20101", HEX)));
+        TestUtils.assertThrown(IllegalArgumentException.class, "invalid node reference length: 2", () -> TrieNode.decode(Strings.decode("c400820102", HEX)));
+        TestUtils.assertThrown(IllegalArgumentException.class, "extension has no child", () -> TrieNode.decode(Strings.decode("c20080", HEX)));
+    }
+
+    @Test
+    public void testTrie() throws Throwable {
+        final MerklePatriciaTrie trie = new MerklePatriciaTrie();
+        assertEquals("56e81f171bcc55a6ff8345e692c0f86e5b48e01b996cadc001622fb5e363b421", Strings.encode(trie.root()));
+        trie.put(utf8("dogglesworth"), utf8("cat"))
+                .put(utf8("doe"), utf8("reindeer"))
+                .put(utf8("dog"), utf8("bone"))
+                .put(utf8("dog"), utf8("puppy"));
+        assertEquals("8aad789dff2f538bca5d8ea56e8abe10f4c7ba3a5dea95fea4cd6e7c3a1168d3", Strings.encode(trie.root()));
+        assertEquals(3, trie.size());
+        assertArrayEquals(utf8("puppy"), trie.get(utf8("dog")));
+        assertNull(trie.get(utf8("do")));
+        assertNull(trie.get(utf8("dogs")));
+        TestUtils.assertThrown(IllegalArgumentException.class, "empty value", () -> trie.put(utf8("x"), new byte[0]));
+    }
+
+    @Test
+    public void testIncrementalRoot() {
+        final Random r = TestUtils.seededRandom();
+        final MerklePatriciaTrie trie = new MerklePatriciaTrie();
+        final List<byte[][]> entries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final byte[] key;
+            if(r.nextInt(3) == 0) {
+                key = MerklePatriciaTrie.indexKey(r.nextInt(400));
+            } else {
+                key = new byte[1 + r.nextInt(3)];
+                r.nextBytes(key);
+            }
+            final byte[] value = new byte[1 + r.nextInt(50)];
+            r.nextBytes(value);
+            trie.put(key, value);
+            entries.removeIf(e -> Arrays.equals(e[0], key));
+            entries.add(new byte[][] { key, value });
+            if(i % 7 == 0) {
+                assertArrayEquals(referenceRoot(entries), trie.root());
+            }
+        }
+        assertEquals(entries.size(), trie.size());
+        assertArrayEquals(referenceRoot(entries), trie.root());
+        for (byte[][] e : entries) {
+            assertArrayEquals(e[1], trie.get(e[0]));
+        }
+    }
+
+    /** Builds the whole trie from scratch out of {@link TrieNode}s. */
+    private static byte[] referenceRoot(List<byte[][]> entries) {
+        final List<byte[][]> nibbleEntries = new ArrayList<>();
+        for (byte[][] e : entries) {
+            nibbleEntries.add(new byte[][] { TrieNode.nibbles(e[0]), e[1] });
+        }
+        return build(nibbleEntries, 0).hash();
+    }
+
+    private static TrieNode build(List<byte[][]> entries, int pos) {
+        if(entries.size() == 1) {
+            final byte[] k = entries.get(0)[0];
+            return new TrieNode.Leaf(Arrays.copyOfRange(k, pos, k.length), entries.get(0)[1]);
+        }
+        int common = 0;
+        outer:
+        for ( ; ; common++) {
+            for (byte[][] e : entries) {
+                if(pos + common == e[0].length || e[0][pos + common] != entries.get(0)[0][pos + common]) {
+                    break outer;
+                }
+            }
+        }
+        if(common > 0) {
+            return new TrieNode.Extension(Arrays.copyOfRange(entries.get(0)[0], pos, pos + common), build(entries, pos + common));
+        }
+        final TrieNode[] children = new TrieNode[TrieNode.BRANCH_WIDTH];
+        byte[] value = Strings.EMPTY_BYTE_ARRAY;
+        for (int i = 0; i < TrieNode.BRANCH_WIDTH; i++) {
+            final List<byte[][]> sub = new ArrayList<>();
+            for (byte[][] e : entries) {
+                if(e[0].length == pos) {
+                    value = e[1];
+                } else if(e[0][pos] == i) {
+                    sub.add(e);
+                }
+            }
+            if(!sub.isEmpty()) {
+                children[i] = build(sub, pos + 1);
+            }
+        }
+        return new TrieNode.Branch(children, value);
+    }
+}
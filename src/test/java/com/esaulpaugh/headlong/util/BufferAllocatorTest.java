@@ -0,0 +1,131 @@
+/*
+   Copyright 2019 Evan Saulpaugh
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.esaulpaugh.headlong.util;
+
+import com.esaulpaugh.headlong.abi.Function;
+import com.esaulpaugh.headlong.abi.Tuple;
+import com.esaulpaugh.headlong.rlp.RLPEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferAllocatorTest {
+
+    private static byte[] contents(ByteBuffer bb) {
+        final byte[] out = new byte[bb.remaining()];
+        bb.duplicate().get(out);
+        return out;
+    }
+
+    @Test
+    public void testPooled() {
+        final PooledBufferAllocator pool = new PooledBufferAllocator(false, 1);
+        final ByteBuffer a = pool.allocate(100);
+        assertEquals(128, a.capacity());
+        assertEquals(0, a.position());
+        assertEquals(100, a.limit());
+        final ByteBuffer b = pool.allocate(65);
+        pool.release(a);
+        pool.release(b); // class already holds one buffer
+        assertSame(a, pool.allocate(70));
+        assertNotSame(b, pool.allocate(70));
+
+        final ByteBuffer big = pool.allocate((1 << 16) + 1);
+        assertEquals((1 << 16) + 1, big.capacity());
+        pool.release(big);
+        assertNotSame(big, pool.allocate((1 << 16) + 1));
+
+        pool.release(ByteBuffer.allocate(100)); // not a size class
+        pool.release(ByteBuffer.allocateDirect(128)); // wrong kind
+        assertEquals(128, pool.allocate(128).capacity());
+        assertEquals(64, pool.allocate(0).capacity());
+
+        assertTrue(new PooledBufferAllocator(true, 4).allocate(10).isDirect());
+    }
+
+    @Test
+    public void testArena() {
+        final BufferArena arena = new BufferArena(100);
+        final ByteBuffer a = arena.allocate(60);
+        final ByteBuffer b = arena.allocate(40);
+        assertTrue(a.isDirect());
+        assertEquals(60, a.remaining());
+        assertEquals(40, b.remaining());
+        assertEquals(0, arena.remaining());
+        a.put(new byte[60]);
+        b.put((byte) 7);
+        final ByteBuffer c = arena.allocate(1);
+        assertFalse(c.isDirect());
+        arena.reset();
+        assertEquals(100, arena.remaining());
+        assertEquals(7, arena.allocate(100).get(60)); // not zeroed
+    }
+
+    @Test
+    public void testEncodeWithAllocators() {
+        final Function f = Function.parse("foo(uint72,bytes,string[])");
+        final Tuple args = new Tuple(BigInteger.valueOf(Long.MAX_VALUE), new byte[] { 1, 2, 3 }, new String[] { "x", "yz" });
+        final byte[] expectedCall = f.encodeCall(args).array();
+        final byte[] expectedArgs = f.getParamTypes().encode(args).array();
+        final Object[] rlpList = new Object[] { new byte[] { 9 }, new Object[] { new byte[60] } };
+        final byte[] expectedList = RLPEncoder.encodeAsList(rlpList);
+        final byte[] expectedString = RLPEncoder.encodeString(new byte[] { 1, 2 });
+
+        final BufferAllocator[] allocators = new BufferAllocator[] {
+                BufferAllocator.HEAP,
+                new PooledBufferAllocator(),
+                new PooledBufferAllocator(true, 2),
+                new BufferArena(1024)
+        };
+        for (BufferAllocator allocator : allocators) {
+            for (int i = 0; i < 2; i++) {
+                final BufferArena arena = allocator instanceof BufferArena ? (BufferArena) allocator : null;
+                final ByteBuffer garbage = allocator.allocate(arena != null ? arena.remaining() : 512);
+                while (garbage.hasRemaining()) {
+                    garbage.put((byte) -1); // leave garbage behind for the next allocation
+                }
+                allocator.release(garbage);
+                if (arena != null) {
+                    arena.reset();
+                }
+
+                ByteBuffer bb = f.encodeCall(args, allocator);
+                assertArrayEquals(expectedCall, contents(bb));
+                if (arena != null) {
+                    assertTrue(bb.isDirect()); // served from the arena's reused memory, not the heap fallback
+                }
+                allocator.release(bb);
+                bb = f.getParamTypes().encode(args, allocator);
+                assertArrayEquals(expectedArgs, contents(bb));
+                allocator.release(bb);
+                bb = RLPEncoder.encodeAsList(rlpList, allocator);
+                assertArrayEquals(expectedList, contents(bb));
+                allocator.release(bb);
+                bb = RLPEncoder.encodeString(new byte[] { 1, 2 }, allocator);
+                assertArrayEquals(expectedString, contents(bb));
+                allocator.release(bb);
+            }
+        }
+    }
+}
@@ -110,6 +110,27 @@ public class IntegersTest {
         }
     }
 
+    @Test
+    public void getUInt256() throws Throwable {
+        final byte[] buffer = new byte[40];
+        final long[] limbs = new long[4];
+        final Random rand = TestUtils.seededRandom();
+        for (int i = 0; i < 10_000; i++) {
+            final BigInteger big = new BigInteger(1 + rand.nextInt(256), rand);
+            final int n = Integers.putBigInt(big, buffer, 3);
+            Integers.getUInt256(buffer, 3, n, false, limbs);
+            for (int j = 0; j < limbs.length; j++) {
+                assertEquals(big.shiftRight(Long.SIZE * (3 - j)).longValue(), limbs[j]);
+            }
+            assertEquals(big, Integers.getBigInt(buffer, 3, n, false));
+        }
+        Integers.getUInt256(buffer, 0, 0, false, limbs);
+        assertArrayEquals(new long[4], limbs);
+        buffer[0] = 0;
+        TestUtils.assertThrown(IllegalArgumentException.class, "deserialized integers with leading zeroes are invalid; index: 0, len: 2", () -> Integers.getUInt256(buffer, 0, 2, false, limbs));
+        TestUtils.assertThrown(IllegalArgumentException.class, "len is out of range: 33", () -> Integers.getUInt256(buffer, 0, 33, true, limbs));
+    }
+
     @Test
     public void lenByte() {
         for (int i = Byte.MIN_VALUE; i <= Byte.MAX_VALUE; i++) {
@@ -19,6 +19,16 @@ import com.esaulpaugh.headlong.TestUtils;
 import com.migcomponents.migbase64.Base64;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Random;
 import java.util.function.Supplier;
 
@@ -140,4 +150,143 @@ public class StringsTest {
 
         TestUtils.assertThrown(IllegalArgumentException.class, "illegal hex val @ 1", () -> FastHex.decode("0'"));
     }
+
+    @Test
+    public void hexIntoBuffers() throws Throwable {
+        Random rand = TestUtils.seededRandom();
+        for (int j = 0; j < 250; j++) {
+            byte[] x = new byte[j];
+            rand.nextBytes(x);
+            final String expected = FastHex.encodeToString(x);
+
+            char[] chars = new char[3 + x.length * 2];
+            assertEquals(chars.length, FastHex.encodeToChars(x, 0, x.length, chars, 3));
+            assertEquals(expected, new String(chars, 3, x.length * 2));
+
+            byte[] ascii = new byte[1 + x.length * 2];
+            assertEquals(ascii.length, FastHex.encodeToBytes(x, 0, x.length, ascii, 1));
+
+            StringBuilder sb = FastHex.encodeTo(x, 0, x.length, new StringBuilder("0x"));
+            assertEquals("0x" + expected, sb.toString());
+            assertEquals("0x" + expected, FastHex.encodeToString(x, 0, x.length, true));
+            assertEquals(expected, FastHex.encodeTo(x, 0, x.length, (Appendable) new StringBuilder()).toString());
+
+            byte[] decoded = new byte[2 + x.length];
+            assertEquals(decoded.length, FastHex.decode(sb, 2, sb.length() - 2, decoded, 2));
+            assertArrayEquals(x, Arrays.copyOfRange(decoded, 2, decoded.length));
+            assertEquals(x.length + 1, FastHex.decode(ascii, 1, ascii.length - 1, decoded, 1));
+            assertArrayEquals(x, Arrays.copyOfRange(decoded, 1, decoded.length - 1));
+            assertArrayEquals(x, FastHex.decode(sb, 0, sb.length(), true));
+            assertArrayEquals(x, FastHex.decode(expected.toUpperCase(Locale.ENGLISH), 0, expected.length()));
+        }
+        TestUtils.assertThrown(IllegalArgumentException.class, "expected prefix \"0x\"", () -> FastHex.decode("00", 0, 2, true));
+        assertArrayEquals(new byte[] { (byte) 0xab }, FastHex.decode("0Xab", 0, 4, true));
+    }
+
+    @Test
+    public void testHexExceptionsSwar() throws Throwable {
+        final char[] illegal = new char[] { '/', ':', '@', 'G', '`', 'g', '\u00e0', '\u0130', '\uff10' };
+        for (int i = 0; i < 20; i++) {
+            for (char c : illegal) {
+                char[] chars = new char[20];
+                Arrays.fill(chars, 'f');
+                chars[i] = c;
+                final String hex = new String(chars);
+                TestUtils.assertThrown(IllegalArgumentException.class, "illegal hex val @ " + i, () -> FastHex.decode(hex));
+                if(c < 0x100) {
+                    final byte[] ascii = hex.getBytes(StandardCharsets.ISO_8859_1);
+                    TestUtils.assertThrown(IllegalArgumentException.class, "illegal hex val @ " + i, () -> FastHex.decode(ascii, 0, ascii.length));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void streaming() throws Throwable {
+        Random rand = TestUtils.seededRandom();
+        for (int encoding : new int[] { HEX, BASE_64_URL_SAFE }) {
+            for (int j = 0; j < 40; j++) {
+                byte[] x = new byte[rand.nextInt(30_000)];
+                rand.nextBytes(x);
+
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try (OutputStream os = Strings.encoder(baos, encoding)) {
+                    int i = 0;
+                    while (i < x.length) {
+                        int n = Math.min(x.length - i, rand.nextInt(5_000));
+                        if(n == 1) {
+                            os.write(x[i]);
+                        } else {
+                            os.write(x, i, n);
+                        }
+                        i += n;
+                    }
+                }
+                String encoded = new String(baos.toByteArray(), StandardCharsets.US_ASCII);
+                assertEquals(Strings.encode(x, encoding), encoded);
+
+                ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+                try (InputStream is = Strings.decoder(new ByteArrayInputStream(baos.toByteArray()), encoding)) {
+                    byte[] buf = new byte[1 + rand.nextInt(10_000)];
+                    int read;
+                    while ((read = is.read(buf, 0, 1 + rand.nextInt(buf.length))) != -1) {
+                        decoded.write(buf, 0, read);
+                    }
+                }
+                assertArrayEquals(x, decoded.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void hexDecoderStreamExceptions() throws Throwable {
+        byte[] hex = new byte[20_001];
+        Arrays.fill(hex, (byte) '0');
+        TestUtils.assertThrown(IllegalArgumentException.class, "len must be a multiple of two", () -> drain(new HexDecoderStream(new ByteArrayInputStream(hex))));
+        hex[hex.length - 1] = '0';
+        hex[17_000] = 'z';
+        TestUtils.assertThrown(IllegalArgumentException.class, "illegal hex val @ 17000", () -> drain(new HexDecoderStream(new ByteArrayInputStream(hex, 0, 20_000))));
+
+        HexDecoderStream is = new HexDecoderStream(new ByteArrayInputStream("0a0b0c0d".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x0a, is.read());
+        assertEquals(2, is.skip(2));
+        assertEquals(0x0d, is.read());
+        assertEquals(-1, is.read());
+    }
+
+    private static void drain(InputStream is) throws IOException {
+        byte[] buf = new byte[777];
+        while (is.read(buf) != -1);
+    }
+
+    @Test
+    public void hexNio() throws Throwable {
+        Random rand = TestUtils.seededRandom();
+        for (int j = 0; j < 100; j++) {
+            byte[] x = new byte[rand.nextInt(500)];
+            rand.nextBytes(x);
+            final ByteBuffer src = j % 2 == 0 ? ByteBuffer.wrap(x) : (ByteBuffer) ByteBuffer.allocateDirect(x.length).put(x).flip();
+            final CharBuffer chars = CharBuffer.allocate(2 + rand.nextInt(100)); // room for at least one pair
+            final StringBuilder sb = new StringBuilder();
+            while (src.hasRemaining()) {
+                FastHex.encode(src, chars);
+                chars.flip();
+                sb.append(chars);
+                chars.clear();
+            }
+            assertEquals(FastHex.encodeToString(x), sb.toString());
+
+            final CharBuffer hex = CharBuffer.wrap(sb);
+            final ByteBuffer dest = j % 2 == 0 ? ByteBuffer.allocate(x.length) : ByteBuffer.allocateDirect(x.length);
+            while (hex.hasRemaining()) {
+                hex.limit(Math.min(sb.length(), hex.position() + rand.nextInt(33)));
+                FastHex.decode(hex, dest);
+                hex.limit(sb.length());
+            }
+            dest.flip();
+            byte[] y = new byte[dest.remaining()];
+            dest.get(y);
+            assertArrayEquals(x, y);
+        }
+    }
 }